@@ -0,0 +1,57 @@
+package com.course.lab01.bench;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Runs the counter and sell benchmarks at 1, 2, 4 ... N threads
+ * (N = available cores) and prints one table per thread count.
+ * * Usage: java -cp target/benchmarks.jar com.course.lab01.bench.ContentionSweep [regex]
+ * * A flat line across thread counts means the strategy does not scale;
+ * a rising 'casFailures' column shows where the time goes.
+ */
+public class ContentionSweep {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "com\\.course\\.lab01\\.bench\\.(Counter|Sell)Benchmark";
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads <<= 1) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                .include(include)
+                .threads(threads)
+                .build();
+            Collection<RunResult> results = new Runner(options).run();
+            print(threads, results);
+        }
+    }
+
+    private static void print(int threads, Collection<RunResult> results) {
+        System.out.println();
+        System.out.printf("=== %d thread(s) ===%n", threads);
+        System.out.printf("%-45s %15s %15s%n", "benchmark", "ops/s", "CAS fail/op");
+        for (RunResult result : results) {
+            String name = result.getParams().getBenchmark();
+            double ops = result.getPrimaryResult().getScore();
+            var failures = result.getSecondaryResults().get("casFailures");
+            String failRate = failures == null || ops == 0
+                ? "-"
+                : String.format("%.4f", failures.getScore() / ops);
+            String shortName = name.substring(ContentionSweep.class.getPackageName().length() + 1);
+            System.out.printf("%-45s %15.0f %15s%n", shortName, ops, failRate);
+        }
+    }
+}
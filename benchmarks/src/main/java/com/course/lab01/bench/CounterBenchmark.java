@@ -0,0 +1,98 @@
+package com.course.lab01.bench;
+
+import com.course.lab01.concurrency.SafeInventory;
+import com.course.lab01.concurrency.UnsafeInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * "Increment" benchmarks: the restock side of the inventory.
+ * * Compares the lab classes (UnsafeInventory, SafeInventory) against the
+ * usual alternatives. Every benchmark shares ONE counter across all threads,
+ * so running with more threads shows how each strategy handles contention.
+ * * NOTE: UnsafeInventory.increment() and SafeInventory.increment() are lab
+ * TODOs. Until they are typed in they do nothing, and their scores only
+ * measure the call itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CounterBenchmark {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(CounterBenchmark.class, "value", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private UnsafeInventory unsafeInventory;
+    private SafeInventory safeInventory;
+    private AtomicInteger atomic;
+    private LongAdder adder;
+    private final Object lock = new Object();
+    private int synchronizedValue;
+    private volatile int value;
+
+    @Setup
+    public void setup() {
+        unsafeInventory = new UnsafeInventory();
+        safeInventory = new SafeInventory();
+        atomic = new AtomicInteger();
+        adder = new LongAdder();
+        synchronizedValue = 0;
+        value = 0;
+    }
+
+    @Benchmark
+    public void unsafeInventory() {
+        unsafeInventory.increment();
+    }
+
+    @Benchmark
+    public void safeInventory() {
+        safeInventory.increment();
+    }
+
+    @Benchmark
+    public int atomicInteger() {
+        return atomic.incrementAndGet();
+    }
+
+    @Benchmark
+    public int synchronizedBlock() {
+        synchronized (lock) {
+            return ++synchronizedValue;
+        }
+    }
+
+    @Benchmark
+    public int varHandle() {
+        return (int) VALUE.getAndAdd(this, 1) + 1;
+    }
+
+    @Benchmark
+    public void longAdder() {
+        adder.increment();
+    }
+}
@@ -0,0 +1,74 @@
+package com.course.lab01.bench;
+
+import com.course.lab01.mover.BulkMover;
+import com.course.lab01.mover.IntList;
+import com.course.lab01.mover.LegacyMover;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moving one buffer of N integers into a fresh destination.
+ * * 'legacyElementWise' is the LegacyMover loop (one add() per element,
+ * repeated ArrayList growth), against BulkMover's single addAll and the
+ * boxing-free IntList.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoverBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private List<Integer> source;
+    private IntList primitiveSource;
+    private final LegacyMover legacy = new LegacyMover();
+    private final BulkMover bulk = new BulkMover();
+
+    @Setup
+    public void setup() {
+        source = new ArrayList<>(size);
+        primitiveSource = new IntList(size);
+        for (int i = 0; i < size; i++) {
+            source.add(i);
+            primitiveSource.add(i);
+        }
+    }
+
+    @Benchmark
+    public List<Object> legacyElementWise() {
+        List<Object> destination = new ArrayList<>();
+        legacy.moveData(source, destination);
+        return destination;
+    }
+
+    @Benchmark
+    public List<Number> bulkAddAll() {
+        List<Number> destination = new ArrayList<>();
+        bulk.moveData(source, destination);
+        return destination;
+    }
+
+    @Benchmark
+    public IntList primitiveIntList() {
+        IntList destination = new IntList();
+        destination.addAll(primitiveSource);
+        return destination;
+    }
+}
@@ -0,0 +1,87 @@
+package com.course.lab01.bench;
+
+import com.course.lab01.pricing.LegacyPricing;
+import com.course.lab01.pricing.PricingPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cost per price of the three ways to run "Tax then Discount".
+ * * NOTE: FunctionalPricing.taxRule / discountRule are lab TODOs, so the
+ * boxed Function&lt;Double, Double&gt; chain is rebuilt here the same way.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int batchSize;
+
+    private double[] prices;
+    private double[] scratch;
+    private Function<Double, Double> boxedChain;
+    private PricingPipeline pipeline;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        prices = new double[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            prices[i] = random.nextDouble() * 1_000;
+        }
+        scratch = new double[batchSize];
+
+        Function<Double, Double> taxRule = price -> price * 1.20;
+        Function<Double, Double> discountRule = price -> price - 10.00;
+        boxedChain = taxRule.andThen(discountRule);
+        pipeline = PricingPipeline.builder().tax(1.20).discount(10.00).build();
+    }
+
+    @Benchmark
+    public double[] legacy() {
+        for (int i = 0; i < prices.length; i++) {
+            scratch[i] = LegacyPricing.calculate(prices[i]);
+        }
+        return scratch;
+    }
+
+    @Benchmark
+    public double[] boxedFunctionChain() {
+        for (int i = 0; i < prices.length; i++) {
+            scratch[i] = boxedChain.apply(prices[i]);
+        }
+        return scratch;
+    }
+
+    @Benchmark
+    public double[] pipelineScalar() {
+        for (int i = 0; i < prices.length; i++) {
+            scratch[i] = pipeline.applyAsDouble(prices[i]);
+        }
+        return scratch;
+    }
+
+    @Benchmark
+    public double[] pipelineBatch() {
+        System.arraycopy(prices, 0, scratch, 0, prices.length);
+        pipeline.applyInPlace(scratch, 0, scratch.length);
+        return scratch;
+    }
+}
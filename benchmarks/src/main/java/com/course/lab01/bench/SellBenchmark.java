@@ -0,0 +1,137 @@
+package com.course.lab01.bench;
+
+import com.course.lab01.concurrency.InstrumentedSalesManager;
+import com.course.lab01.concurrency.StripedInventory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * "Sell" benchmarks: the decrement-if-positive path of SalesManager.
+ * * Each strategy sells from ONE shared stock. Alongside ops/sec, the
+ * per-thread 'casFailures' counter shows how often a CAS lost the race.
+ * It is reported in the same unit as the score (failures/sec), so
+ * casFailures / score is the CAS failure rate per sell.
+ * * NOTE: SalesManager.sellItemSafe() is a lab TODO and its loop never
+ * exits until the CAS line is typed in, so 'atomicCas' below reproduces
+ * that exact loop with a failure counter added.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SellBenchmark {
+
+    // Large enough that no iteration ever sells out.
+    private static final int STOCK = Integer.MAX_VALUE;
+
+    private static final VarHandle STOCK_HANDLE;
+
+    static {
+        try {
+            STOCK_HANDLE = MethodHandles.lookup().findVarHandle(SellBenchmark.class, "varHandleStock", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private AtomicInteger atomicStock;
+    private InstrumentedSalesManager instrumented;
+    private StripedInventory striped;
+    private final Object lock = new Object();
+    private int synchronizedStock;
+    private volatile int varHandleStock;
+
+    /**
+     * Per-thread counters, reported by JMH next to the primary score
+     * and normalised to the same time unit.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class CasStats {
+        public long casFailures;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            casFailures = 0;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void restock() {
+        atomicStock = new AtomicInteger(STOCK);
+        instrumented = new InstrumentedSalesManager(STOCK);
+        striped = new StripedInventory(STOCK);
+        synchronizedStock = STOCK;
+        varHandleStock = STOCK;
+    }
+
+    @Benchmark
+    public boolean atomicCas(CasStats stats) {
+        while (true) {
+            int current = atomicStock.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (atomicStock.compareAndSet(current, current - 1)) {
+                return true;
+            }
+            stats.casFailures++;
+        }
+    }
+
+    /**
+     * Same loop as atomicCas plus SalesMetrics: the gap between the two
+     * scores is the cost of the instrumentation.
+     */
+    @Benchmark
+    public boolean instrumentedCas() {
+        return instrumented.sellItemSafe();
+    }
+
+    @Benchmark
+    public boolean varHandleCas(CasStats stats) {
+        while (true) {
+            int current = (int) STOCK_HANDLE.getVolatile(this);
+            if (current <= 0) {
+                return false;
+            }
+            if (STOCK_HANDLE.compareAndSet(this, current, current - 1)) {
+                return true;
+            }
+            stats.casFailures++;
+        }
+    }
+
+    @Benchmark
+    public boolean synchronizedBlock() {
+        synchronized (lock) {
+            if (synchronizedStock <= 0) {
+                return false;
+            }
+            synchronizedStock--;
+            return true;
+        }
+    }
+
+    @Benchmark
+    public boolean striped() {
+        return striped.sellItem();
+    }
+}
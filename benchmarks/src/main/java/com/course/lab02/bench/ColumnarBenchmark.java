@@ -0,0 +1,103 @@
+package com.course.lab02.bench;
+
+import com.course.lab02.modern.JsonReader;
+import com.course.lab02.modern.JsonWriter;
+import com.course.lab02.modern.TransactionColumnReader;
+import com.course.lab02.modern.TransactionColumnWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * "Total per type" over the same rows, two storage formats:
+ * - ndjson   : parse every NDJSON row into a record, then add up
+ * - columnar : TransactionColumnReader.sumByType() over the mapped columns
+ * - sumAll   : TransactionColumnReader.sum() (one 8-byte column)
+ * Both inputs are in memory (byte[] / page cache), so this compares
+ * decoding cost, not disk speed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarBenchmark {
+
+    public record Transaction(String id, double amount, String type) {}
+
+    @Param({"1000000"})
+    public int rows;
+
+    private byte[] ndjson;
+    private Path directory;
+    private TransactionColumnReader columns;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("columnar-bench");
+        Random random = new Random(42);
+        JsonWriter json = new JsonWriter(rows * 64);
+        try (TransactionColumnWriter writer = TransactionColumnWriter.open(directory)) {
+            for (int i = 0; i < rows; i++) {
+                String id = "TX-" + i;
+                double amount = random.nextInt(1_000_000) / 100.0;
+                String type = random.nextBoolean() ? "CREDIT" : "DEBIT";
+                json.write(new Transaction(id, amount, type)).newLine();
+                writer.append(id, amount, type);
+            }
+        }
+        ndjson = json.toByteArray();
+        columns = new TransactionColumnReader(directory);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public double ndjson() {
+        double credits = 0;
+        double debits = 0;
+        for (Transaction tx : JsonReader.readAll(ndjson, Transaction.class)) {
+            if ("CREDIT".equals(tx.type())) {
+                credits += tx.amount();
+            } else {
+                debits += tx.amount();
+            }
+        }
+        return credits - debits;
+    }
+
+    @Benchmark
+    public double columnar() {
+        Map<String, Double> sums = columns.sumByType();
+        return sums.get("CREDIT") - sums.get("DEBIT");
+    }
+
+    @Benchmark
+    public double sumAll() {
+        return columns.sum();
+    }
+}
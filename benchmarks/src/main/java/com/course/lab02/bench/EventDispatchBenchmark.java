@@ -0,0 +1,95 @@
+package com.course.lab02.bench;
+
+import com.course.lab02.patterns.BatchDispatcher;
+import com.course.lab02.patterns.Events.ErrorEvent;
+import com.course.lab02.patterns.Events.LoginEvent;
+import com.course.lab02.patterns.Events.PaymentEvent;
+import com.course.lab02.patterns.LegacyProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One mixed batch of events through three processors:
+ * - instanceofChain : LegacyProcessor.process (one String per event)
+ * - patternSwitch   : a switch with type patterns (one String per event)
+ * - dispatchTable   : BatchDispatcher into a reused StringBuilder
+ * * NOTE: ModernProcessor.process is a lab TODO, so the pattern-matching
+ * switch is written out here the way the lab solution reads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    @Param({"10000"})
+    public int batchSize;
+
+    private List<Object> batch;
+    private final LegacyProcessor legacy = new LegacyProcessor();
+    private final BatchDispatcher dispatcher = BatchDispatcher.standard();
+    private final StringBuilder out = new StringBuilder(1 << 20);
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(switch (random.nextInt(3)) {
+                case 0 -> new LoginEvent("user" + i, random.nextInt(10) != 0);
+                case 1 -> new PaymentEvent("TX-" + i, random.nextInt(10_000) / 100.0);
+                default -> new ErrorEvent(500, "Internal error " + i);
+            });
+        }
+    }
+
+    @Benchmark
+    public void instanceofChain(Blackhole bh) {
+        for (Object event : batch) {
+            bh.consume(legacy.process(event));
+        }
+    }
+
+    @Benchmark
+    public void patternSwitch(Blackhole bh) {
+        for (Object event : batch) {
+            bh.consume(switchProcess(event));
+        }
+    }
+
+    @Benchmark
+    public StringBuilder dispatchTable() {
+        out.setLength(0);
+        dispatcher.processBatch(batch, out);
+        return out;
+    }
+
+    private static String switchProcess(Object event) {
+        if (event instanceof LoginEvent login && !login.success()) {
+            return "ALARM";
+        }
+        return switch (event) {
+            case LoginEvent login -> "User " + login.username() + " logged in: " + login.success();
+            case PaymentEvent pay -> "Paid " + pay.amount() + " for ID: " + pay.id();
+            case ErrorEvent err -> "Error " + err.code() + ": " + err.message();
+            default -> "Unknown Event";
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.course.lab02.bench;
+
+import com.course.lab02.modern.JsonWriter;
+import com.course.lab02.modern.LegacyTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One batch of transactions to UTF-8 JSON bytes:
+ * - toJson        : LegacyTransaction.toJSON() + getBytes (two copies per row)
+ * - writerGetters : JsonWriter over the same LegacyTransactions (getter handles)
+ * - writerRecord  : JsonWriter over an equivalent record (component handles)
+ * Both writers reuse one buffer per batch. Run with -prof gc to see B/op.
+ * * NOTE: ModernTransaction is the Lab 2.1 TODO, so the record is declared here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    public record Transaction(String id, double amount, String type) {}
+
+    @Param({"10000"})
+    public int batchSize;
+
+    private List<LegacyTransaction> legacy;
+    private List<Transaction> records;
+    private final JsonWriter writer = new JsonWriter(1 << 20);
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        legacy = new ArrayList<>(batchSize);
+        records = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            String id = "TX-" + i;
+            double amount = random.nextInt(1_000_000) / 100.0;
+            String type = random.nextBoolean() ? "CREDIT" : "DEBIT";
+            legacy.add(new LegacyTransaction(id, amount, type));
+            records.add(new Transaction(id, amount, type));
+        }
+    }
+
+    @Benchmark
+    public void toJson(Blackhole bh) {
+        for (LegacyTransaction tx : legacy) {
+            bh.consume(tx.toJSON().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public int writerGetters() {
+        writer.reset();
+        for (LegacyTransaction tx : legacy) {
+            writer.write(tx).newLine();
+        }
+        return writer.size();
+    }
+
+    @Benchmark
+    public int writerRecord() {
+        writer.reset();
+        for (Transaction tx : records) {
+            writer.write(tx).newLine();
+        }
+        return writer.size();
+    }
+}
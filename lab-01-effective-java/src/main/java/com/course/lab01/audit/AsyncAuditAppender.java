@@ -0,0 +1,259 @@
+package com.course.lab01.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The "Async" Audit Appender.
+ * * PROBLEM: LegacyLogging.log() and SmartLogging.log() call System.out on
+ * the caller's thread. With audit logging ON, every price calculation
+ * waits for console I/O.
+ * * FIX: The caller only drops the message into a bounded ring buffer
+ * (one CAS, no lock). A background "drain" thread takes messages out in
+ * batches and writes them to a FileChannel.
+ * * When the buffer is full the {@link OverflowPolicy} decides:
+ * DROP the message (caller never waits) or BLOCK until there is room.
+ *
+ * <pre>
+ * LegacyLogging.AUDIT_APPENDER = new AsyncAuditAppender(Path.of("audit.log"), 8192, OverflowPolicy.DROP);
+ * </pre>
+ */
+public class AsyncAuditAppender implements AutoCloseable {
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    // Ring buffer (multi-producer, single-consumer).
+    // sequences[i] tells who owns slot i:
+    //   == position      -> free, a producer may claim it
+    //   == position + 1  -> filled, the drain thread may read it
+    private final String[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();   // next position to claim (producers)
+    private volatile long head;                         // next position to read (drain thread only)
+
+    private final OverflowPolicy policy;
+    private final FileChannel channel;
+    private final Thread drainThread;
+    private volatile boolean running = true;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile long written;
+
+    public AsyncAuditAppender(Path file, int capacity, OverflowPolicy policy) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be >= 2");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new String[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.policy = policy;
+
+        try {
+            this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit file " + file, e);
+        }
+
+        this.drainThread = new Thread(this::drainLoop, "audit-drain");
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    /**
+     * Queues one audit line. Never touches the file on the caller's thread.
+     * Under DROP it never throws for a full buffer or a closed / failed
+     * appender either: the message is counted as dropped.
+     *
+     * @return false if the message was dropped (DROP policy: buffer full, or
+     *         the appender is closed or its drain thread died)
+     * @throws IllegalStateException under BLOCK, if the appender is closed or failed
+     */
+    public boolean append(String message) {
+        Objects.requireNonNull(message, "message");
+        if (!running) {
+            if (policy == OverflowPolicy.DROP) {
+                dropped.increment();
+                return false;
+            }
+            throw new IllegalStateException("Appender is closed");
+        }
+        while (true) {
+            if (tryEnqueue(message)) {
+                appended.increment();
+                return true;
+            }
+            if (policy == OverflowPolicy.DROP) {
+                dropped.increment();
+                return false;
+            }
+            // BLOCK: the drain thread frees slots in batches, so a short park is enough.
+            if (!running) {
+                throw new IllegalStateException("Appender was closed while waiting for space");
+            }
+            LockSupport.parkNanos(1_000);
+        }
+    }
+
+    private boolean tryEnqueue(String message) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            long diff = sequence - position;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = message;
+                    sequences.set(index, position + 1); // publish to the drain thread
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false; // full: the slot still holds last lap's message
+            }
+            // else: another producer claimed this position, re-read tail
+        }
+    }
+
+    private void drainLoop() {
+        ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        try {
+            while (running || head != tail.get()) {
+                int batch = drainBatch(out, encoder);
+                if (batch == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Audit drain failed", e);
+        } finally {
+            // However the drain ends (closed, file gone, any RuntimeException), stop
+            // accepting messages so BLOCK callers fail fast instead of waiting forever.
+            running = false;
+        }
+    }
+
+    /**
+     * Moves every ready message into the write buffer, flushing to the
+     * channel whenever the buffer fills up.
+     */
+    private int drainBatch(ByteBuffer out, CharsetEncoder encoder) throws IOException {
+        int count = 0;
+        long position = head;
+        // At most one lap per batch, so 'written' keeps up under a constant stream.
+        while (count <= mask) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break; // nothing (more) published yet
+            }
+            String message = slots[index];
+            slots[index] = null;
+            sequences.set(index, position + mask + 1); // hand the slot back for the next lap
+            position++;
+            head = position;
+
+            encode(message, out, encoder);
+            count++;
+        }
+        if (out.position() > 0) {
+            flush(out);
+        }
+        written += count;
+        return count;
+    }
+
+    private void encode(String message, ByteBuffer out, CharsetEncoder encoder) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(message);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, out, true);
+            if (result.isOverflow()) {
+                flush(out);
+                continue;
+            }
+            break;
+        }
+        if (!out.hasRemaining()) {
+            flush(out);
+        }
+        out.put((byte) '\n');
+    }
+
+    private void flush(ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Waits until every message appended before this call is on disk
+     * (written to the channel, not necessarily fsync'd).
+     */
+    public void flush() {
+        // Dropped messages never claim a position, so tail == messages queued.
+        long target = tail.get();
+        while (written < target && drainThread.isAlive()) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Stops accepting messages, drains what is left, and closes the file.
+     * A message appended concurrently with close() may be lost.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            drainThread.join();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close audit file", e);
+        }
+    }
+
+    public long getAppended() {
+        return appended.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getWritten() {
+        return written;
+    }
+}
@@ -1,11 +1,16 @@
 package com.course.lab01.audit;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
 import java.util.stream.Stream;
 
 public class BatchAudit {
 
+    public static final double TAX_RATE = 1.20;
+
     /*
      * TODO: Activity 2 - The Stream Implementation
      * * Scenario: We have 500 invoices. We need to apply Tax and Log the result.
@@ -44,4 +49,104 @@ public class BatchAudit {
         
     //     // return List.of(); // Placeholder until uncommented
     // }
+
+    /*
+     * PRIMITIVE PATH: For multi-million invoice batches.
+     * * List<Double> boxes every price twice (in and out): at 10M invoices
+     * that is hundreds of MB of garbage per run. Here the prices stay in
+     * a double[] and the same "pure math + separate side effect" split is kept:
+     * - applyTax(...)  -> pure math, allocates nothing
+     * - BatchSink      -> the isolated side effect, called once per chunk
+     */
+
+    /**
+     * The side effect "window" for the primitive path.
+     * * Called with a slice [from, to) of the taxed results. In parallel mode
+     * it is called from several worker threads at once, so it must be thread-safe.
+     */
+    @FunctionalInterface
+    public interface BatchSink {
+        void accept(double[] taxed, int from, int to);
+    }
+
+    public static final BatchSink NO_SINK = (taxed, from, to) -> { };
+
+    // Below this many prices a chunk is not worth handing to another core.
+    static final int PARALLEL_CHUNK = 64 * 1024;
+
+    /**
+     * Pure tax math over a slice. A plain counted loop, so the JIT can unroll
+     * and vectorize it.
+     */
+    public static void applyTax(double[] prices, double[] taxed, int from, int to) {
+        for (int i = from; i < to; i++) {
+            taxed[i] = prices[i] * TAX_RATE;
+        }
+    }
+
+    public static double[] processPrimitive(double[] prices, BatchSink sink) {
+        double[] taxed = new double[prices.length];
+        applyTax(prices, taxed, 0, prices.length);
+        sink.accept(taxed, 0, taxed.length);
+        return taxed;
+    }
+
+    /**
+     * Fork-join version: the array is split in halves until chunks are
+     * PARALLEL_CHUNK long, each chunk is taxed and then handed to the sink.
+     */
+    public static double[] processParallel(double[] prices, BatchSink sink) {
+        double[] taxed = new double[prices.length];
+        ForkJoinPool.commonPool().invoke(new TaxTask(prices, taxed, 0, prices.length, sink));
+        return taxed;
+    }
+
+    public static DoubleStream processStream(DoubleStream prices) {
+        return prices.map(price -> price * TAX_RATE);
+    }
+
+    /**
+     * A sink that goes through SmartLogging: it does nothing at all while
+     * SmartLogging.LOGGING_ENABLED is false.
+     */
+    public static BatchSink smartLogSink() {
+        return (taxed, from, to) -> {
+            if (SmartLogging.LOGGING_ENABLED) {
+                for (int i = from; i < to; i++) {
+                    SmartLogging.write("Clean Log: " + taxed[i]);
+                }
+            }
+        };
+    }
+
+    // ForkJoinTask is Serializable, but these tasks only live inside one
+    // processParallel call and are never serialized (nor is the BatchSink).
+    @SuppressWarnings("serial")
+    private static final class TaxTask extends RecursiveAction {
+        private final double[] prices;
+        private final double[] taxed;
+        private final int from;
+        private final int to;
+        private final BatchSink sink;
+
+        TaxTask(double[] prices, double[] taxed, int from, int to, BatchSink sink) {
+            this.prices = prices;
+            this.taxed = taxed;
+            this.from = from;
+            this.to = to;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                applyTax(prices, taxed, from, to);
+                sink.accept(taxed, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new TaxTask(prices, taxed, from, mid, sink),
+                      new TaxTask(prices, taxed, mid, to, sink));
+        }
+    }
 }
\ No newline at end of file
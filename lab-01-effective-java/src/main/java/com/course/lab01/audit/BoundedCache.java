@@ -0,0 +1,188 @@
+package com.course.lab01.audit;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A small bounded cache with LRU + TTL eviction and "single-flight" loading.
+ * * Single-flight: if 10 threads ask for the same missing key at once,
+ * the loader runs ONCE and the other 9 wait for that result.
+ * * The lock only guards the LinkedHashMap bookkeeping (a few nanoseconds).
+ * The expensive loader always runs outside of it, so a slow load for one
+ * key never blocks lookups of other keys.
+ * * Eviction skips entries that are still loading: evicting one would let
+ * the next caller start a second load of the same key. While every extra
+ * entry is in flight the cache holds more than maxSize; it shrinks back
+ * once those loads finish.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> {
+
+    /** Point-in-time counters, for sizing the cache. */
+    public record Stats(long hits, long misses, long evictions, long expirations, int size) {
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private record Entry<V>(CompletableFuture<V> value, long createdAt) {}
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maxSize maximum number of entries (least recently used goes first)
+     * @param ttl     time to live per entry; Duration.ZERO disables expiry
+     */
+    public BoundedCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    BoundedCache(int maxSize, Duration ttl, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be >= 1");
+        }
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl must not be negative");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        // accessOrder = true turns the LinkedHashMap into an LRU list.
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                evictOverflow();
+                return false; // evictOverflow() already removed what it could
+            }
+        };
+    }
+
+    /** Drops the least recently used finished entries until the cache fits. Caller holds the lock. */
+    private void evictOverflow() {
+        Iterator<Entry<V>> lru = entries.values().iterator();
+        while (entries.size() > maxSize && lru.hasNext()) {
+            if (lru.next().value().isDone()) {
+                lru.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Returns the cached value, or runs the loader once to create it.
+     * If the loader throws, nothing is cached and every waiter sees the error.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> created = null;
+        CompletableFuture<V> existing;
+
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && isExpired(entry)) {
+                entries.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry != null) {
+                existing = entry.value();
+            } else {
+                created = new CompletableFuture<>();
+                existing = created;
+                entries.put(key, new Entry<>(created, clock.getAsLong()));
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (created == null) {
+            hits.increment();
+            return join(existing);
+        }
+
+        misses.increment();
+        try {
+            V value = loader.apply(key);
+            created.complete(value);
+            lock.lock();
+            try {
+                evictOverflow(); // entries skipped while this load was in flight
+            } finally {
+                lock.unlock();
+            }
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            lock.lock();
+            try {
+                // Only remove our own failed entry, not a newer one for the same key.
+                Entry<V> current = entries.get(key);
+                if (current != null && current.value() == created) {
+                    entries.remove(key);
+                }
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size);
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return ttlNanos > 0 && clock.getAsLong() - entry.createdAt() >= ttlNanos;
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.course.lab01.audit;
+
+import java.time.Duration;
+
+/**
+ * A cache in front of LegacyLogging.generateExpensiveAuditTrail().
+ * * PROBLEM: Each call costs 500ms, and an invoice batch repeats the same
+ * price points many times.
+ * * FIX: Keep the last N trails per price. Repeated prices cost a map lookup,
+ * and concurrent requests for the same price share one computation.
+ * * NOTE: A cached trail keeps the timestamp from when it was generated.
+ * Pick the TTL to match how stale an audit ID is allowed to be.
+ */
+public class CachedAuditTrail {
+
+    private final BoundedCache<Double, String> cache;
+
+    public CachedAuditTrail(int maxPrices, Duration ttl) {
+        this.cache = new BoundedCache<>(maxPrices, ttl);
+    }
+
+    public String generate(Double price) {
+        return cache.get(price, LegacyLogging::generateExpensiveAuditTrail);
+    }
+
+    public BoundedCache.Stats stats() {
+        return cache.stats();
+    }
+}
@@ -13,6 +13,10 @@ public class LegacyLogging {
     // A flag to simulate whether we want logs (currently OFF)
     public static boolean LOGGING_ENABLED = false;
 
+    // Optional: when set, log lines go to this background writer instead of System.out.
+    // Volatile: it is swapped at runtime while pricing threads are logging.
+    public static volatile AsyncAuditAppender AUDIT_APPENDER = null;
+
     public static Double calculateWithEagerLog(Double price) {
         
         /* * THE TRAP:
@@ -30,7 +34,12 @@ public class LegacyLogging {
         // We check the flag here... but it's too late! 
         // The expensive string generation has already happened.
         if (LOGGING_ENABLED) {
-            System.out.println(message);
+            AsyncAuditAppender appender = AUDIT_APPENDER;
+            if (appender != null) {
+                appender.append(message);
+            } else {
+                System.out.println(message);
+            }
         }
     }
 
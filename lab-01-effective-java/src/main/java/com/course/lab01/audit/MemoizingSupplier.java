@@ -0,0 +1,53 @@
+package com.course.lab01.audit;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A Supplier that runs its delegate at most once.
+ * * SmartLogging.log(Supplier) already avoids building a message when
+ * logging is OFF. When the same lazy message is handed to several sinks
+ * (console + audit file + metrics), wrap it once and every sink shares
+ * the one expensive result:
+ *
+ * <pre>
+ * Supplier&lt;String&gt; trail = MemoizingSupplier.of(() -&gt; LegacyLogging.generateExpensiveAuditTrail(price));
+ * </pre>
+ *
+ * @param <T> result type
+ */
+public final class MemoizingSupplier<T> implements Supplier<T> {
+
+    private Supplier<? extends T> delegate;   // cleared after the first call
+    private volatile boolean computed;
+    private T value;                          // published by the volatile write to 'computed'
+
+    private MemoizingSupplier(Supplier<? extends T> delegate) {
+        this.delegate = delegate;
+    }
+
+    public static <T> Supplier<T> of(Supplier<? extends T> delegate) {
+        Objects.requireNonNull(delegate, "delegate");
+        if (delegate instanceof MemoizingSupplier<?>) {
+            @SuppressWarnings("unchecked")
+            Supplier<T> already = (Supplier<T>) delegate;
+            return already;
+        }
+        return new MemoizingSupplier<>(delegate);
+    }
+
+    @Override
+    public T get() {
+        // Double-checked: after the first call this is a single volatile read.
+        if (!computed) {
+            synchronized (this) {
+                if (!computed) {
+                    value = delegate.get();
+                    delegate = null;
+                    computed = true;
+                }
+            }
+        }
+        return value;
+    }
+}
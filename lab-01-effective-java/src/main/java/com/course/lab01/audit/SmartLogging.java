@@ -7,6 +7,20 @@ public class SmartLogging {
 
     public static boolean LOGGING_ENABLED = false;
 
+    // Optional: when set, log lines go to this background writer instead of System.out.
+    // Volatile: it is swapped at runtime while pricing threads are logging.
+    public static volatile AsyncAuditAppender AUDIT_APPENDER = null;
+
+    // Where log lines end up. Kept outside the lab snippets below.
+    static void write(String line) {
+        AsyncAuditAppender appender = AUDIT_APPENDER;
+        if (appender != null) {
+            appender.append(line);
+        } else {
+            System.out.println(line);
+        }
+    }
+
     /*
      * TODO: PART 1 - The "Pass-Through" Auditor (Consumer)
      * Uncomment the method below.
@@ -35,7 +49,7 @@ public class SmartLogging {
     // public static void log(Supplier<String> messageGenerator) {
     //     if (LOGGING_ENABLED) {
     //         // The Expensive Code runs HERE, and ONLY here.
-    //         System.out.println("LOG: " + messageGenerator.get());
+    //         write("LOG: " + messageGenerator.get());
     //     }
     // }
 
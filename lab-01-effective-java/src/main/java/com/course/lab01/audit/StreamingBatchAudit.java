@@ -0,0 +1,121 @@
+package com.course.lab01.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The "Streaming" Batch Audit.
+ * * PROBLEM: The nightly invoice files are bigger than the heap, so they
+ * cannot be loaded into a List<Double> (or even a double[]) first.
+ * * FIX: Memory-map the input file one chunk at a time, tax it straight into
+ * a memory-mapped output file, and move on. Only one chunk is mapped at a
+ * time, and the mapping lives in the OS page cache, not on the heap.
+ * * RESTART: After each chunk is forced to disk, the next offset is written
+ * to a checkpoint file. A crashed run picks up from there.
+ * * File format: a flat sequence of big-endian doubles (DataOutputStream.writeDouble).
+ */
+public class StreamingBatchAudit {
+
+    static final int PRICE_BYTES = Double.BYTES;
+
+    // 8M prices = 64 MB mapped per chunk.
+    public static final int DEFAULT_CHUNK_PRICES = 8 * 1024 * 1024;
+
+    // One mapping holds at most Integer.MAX_VALUE bytes (~2 GB), and both files
+    // have a chunk mapped at once: 128M prices = 1 GB per file.
+    public static final int MAX_CHUNK_PRICES = 128 * 1024 * 1024;
+
+    public static long process(Path input, Path output, Path checkpoint) throws IOException {
+        return process(input, output, checkpoint, DEFAULT_CHUNK_PRICES);
+    }
+
+    /**
+     * Taxes every price in 'input' into 'output', resuming from 'checkpoint'
+     * if it exists. When the run finishes the checkpoint points at the end of
+     * the file, so running again is a no-op.
+     *
+     * @return the number of prices processed by THIS call
+     */
+    public static long process(Path input, Path output, Path checkpoint, int chunkPrices) throws IOException {
+        return process(input, output, checkpoint, chunkPrices, Integer.MAX_VALUE);
+    }
+
+    // maxChunks lets the tests stop half-way, like a crash would.
+    static long process(Path input, Path output, Path checkpoint, int chunkPrices, int maxChunks) throws IOException {
+        if (chunkPrices < 1 || chunkPrices > MAX_CHUNK_PRICES) {
+            throw new IllegalArgumentException("chunkPrices must be between 1 and " + MAX_CHUNK_PRICES + ": " + chunkPrices);
+        }
+
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output,
+                 StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            long size = in.size();
+            if (size % PRICE_BYTES != 0) {
+                throw new IllegalArgumentException(input + " is not a whole number of doubles (" + size + " bytes)");
+            }
+            long total = size / PRICE_BYTES;
+            long start = readCheckpoint(checkpoint);
+            if (start > total) {
+                throw new IllegalStateException("Checkpoint " + start + " is past the end of " + input);
+            }
+            if (start == 0) {
+                // Fresh run: prices left over from a longer, older output must not survive.
+                out.truncate(size);
+            } else if (out.size() < start * PRICE_BYTES) {
+                throw new IllegalStateException("Checkpoint " + start + " does not match " + output
+                    + " (" + out.size() + " bytes): it belongs to another run");
+            }
+
+            long position = start;
+            int chunks = 0;
+            while (position < total && chunks < maxChunks) {
+                int count = (int) Math.min(chunkPrices, total - position);
+                long offset = position * PRICE_BYTES;
+                long length = (long) count * PRICE_BYTES;
+
+                MappedByteBuffer source = in.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, offset, length);
+                applyTax(view(source), view(target), count);
+                target.force();
+
+                position += count;
+                writeCheckpoint(checkpoint, position);
+                chunks++;
+            }
+            return position - start;
+        }
+    }
+
+    private static DoubleBuffer view(ByteBuffer buffer) {
+        return buffer.order(ByteOrder.BIG_ENDIAN).asDoubleBuffer();
+    }
+
+    private static void applyTax(DoubleBuffer source, DoubleBuffer target, int count) {
+        for (int i = 0; i < count; i++) {
+            target.put(i, source.get(i) * BatchAudit.TAX_RATE);
+        }
+    }
+
+    static long readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(checkpoint).trim());
+    }
+
+    private static void writeCheckpoint(Path checkpoint, long position) throws IOException {
+        // Write-then-rename, so a crash never leaves a half-written checkpoint.
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(position));
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
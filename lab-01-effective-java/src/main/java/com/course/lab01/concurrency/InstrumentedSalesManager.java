@@ -0,0 +1,51 @@
+package com.course.lab01.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SalesManager's safe CAS loop, with {@link SalesMetrics} wired in.
+ * * Same API as SalesManager (sellItemSafe / getStock), so it can replace
+ * it in a load test. The loop counts its own lost CAS races in a local
+ * variable and reports them once per sell, so the hot loop itself only
+ * touches the stock counter.
+ */
+public class InstrumentedSalesManager {
+
+    private final AtomicInteger inventory;
+    private final SalesMetrics metrics;
+
+    public InstrumentedSalesManager(int initialStock) {
+        this(initialStock, new SalesMetrics());
+    }
+
+    public InstrumentedSalesManager(int initialStock, SalesMetrics metrics) {
+        this.inventory = new AtomicInteger(initialStock);
+        this.metrics = metrics;
+    }
+
+    public boolean sellItemSafe() {
+        int retries = 0;
+        while (true) {
+            int currentStock = inventory.get();
+
+            if (currentStock <= 0) {
+                metrics.recordSoldOut(retries);
+                return false;
+            }
+
+            if (inventory.compareAndSet(currentStock, currentStock - 1)) {
+                metrics.recordSale(retries);
+                return true;
+            }
+            retries++;
+        }
+    }
+
+    public int getStock() {
+        return inventory.get();
+    }
+
+    public SalesMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,191 @@
+package com.course.lab01.concurrency;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The "Multi-SKU" Inventory.
+ * * PROBLEM: SalesManager and SafeInventory hold one counter for one product,
+ * but a shopping cart reserves several products at once. Wrapping the whole
+ * cart in a synchronized block serialises every checkout in the shop.
+ * * FIX: Keep one CAS counter per SKU (the same pattern as sellItemSafe),
+ * stored in a primitive open-addressing table:
+ * - keys   -> AtomicLongArray (0 means "empty slot")
+ * - stock  -> AtomicIntegerArray (no boxed Integer anywhere)
+ * * A cart is reserved line by line with one CAS each. If any line is short,
+ * the lines already taken are put back ("compensation"), so the cart is
+ * all-or-nothing without ever taking a global lock.
+ */
+public class MultiSkuInventory {
+
+    private static final long EMPTY = 0L;
+
+    private final AtomicLongArray keys;
+    private final AtomicIntegerArray stock;
+    private final int mask;
+
+    /**
+     * @param expectedSkus how many distinct SKUs will be stored. The table is
+     *                     sized to stay at most half full, and it never grows.
+     */
+    public MultiSkuInventory(int expectedSkus) {
+        if (expectedSkus < 1) {
+            throw new IllegalArgumentException("expectedSkus must be >= 1");
+        }
+        int capacity = Integer.highestOneBit(expectedSkus * 2 - 1) << 1;
+        this.keys = new AtomicLongArray(capacity);
+        this.stock = new AtomicIntegerArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Adds stock for a SKU, registering the SKU on first use.
+     */
+    public void addStock(long sku, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("quantity must be >= 0");
+        }
+        stock.addAndGet(slotFor(sku, true), quantity);
+    }
+
+    public int getStock(long sku) {
+        int slot = slotFor(sku, false);
+        return slot < 0 ? 0 : stock.get(slot);
+    }
+
+    /**
+     * Single-line reservation. Same CAS loop as SalesManager.sellItemSafe(),
+     * just for 'quantity' items instead of one.
+     */
+    public boolean tryReserve(long sku, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("quantity must be >= 0");
+        }
+        int slot = slotFor(sku, false);
+        return slot >= 0 && take(slot, quantity);
+    }
+
+    /**
+     * Reserves every line of the cart, or none of them.
+     * * Lines are taken in slot order, so two carts that share SKUs always
+     * visit them in the same order. A failed cart rolls back what it took;
+     * until then, another cart may briefly see the lower stock and fail too.
+     *
+     * @param cart SKU -> quantity
+     * @return true if the whole cart was reserved
+     */
+    public boolean tryReserve(Map<Long, Integer> cart) {
+        int lines = cart.size();
+        int[] slots = new int[lines];
+        int[] quantities = new int[lines];
+
+        // 1. Resolve all SKUs first: an unknown SKU fails the cart for free.
+        int n = 0;
+        for (Map.Entry<Long, Integer> line : cart.entrySet()) {
+            int quantity = line.getValue();
+            if (quantity < 0) {
+                throw new IllegalArgumentException("quantity must be >= 0 for SKU " + line.getKey());
+            }
+            int slot = slotFor(line.getKey(), false);
+            if (slot < 0) {
+                return false;
+            }
+            slots[n] = slot;
+            quantities[n] = quantity;
+            n++;
+        }
+        sortBySlot(slots, quantities);
+
+        // 2. Take each line with one CAS loop; undo on the first shortage.
+        for (int i = 0; i < n; i++) {
+            if (!take(slots[i], quantities[i])) {
+                for (int j = 0; j < i; j++) {
+                    stock.addAndGet(slots[j], quantities[j]);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a previously reserved cart to stock (e.g. on payment failure).
+     */
+    public void release(Map<Long, Integer> cart) {
+        for (Map.Entry<Long, Integer> line : cart.entrySet()) {
+            int slot = slotFor(line.getKey(), false);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown SKU: " + line.getKey());
+            }
+            stock.addAndGet(slot, line.getValue());
+        }
+    }
+
+    private boolean take(int slot, int quantity) {
+        while (true) {
+            int current = stock.get(slot);
+            if (current < quantity) {
+                return false;
+            }
+            if (stock.compareAndSet(slot, current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Linear probing. Registration claims an empty slot with a CAS, so two
+     * threads adding the same new SKU still end up on one slot.
+     *
+     * @return the slot index, or -1 if the SKU is unknown and create is false
+     */
+    private int slotFor(long sku, boolean create) {
+        if (sku == EMPTY) {
+            throw new IllegalArgumentException("SKU 0 is reserved");
+        }
+        int slot = mix(sku) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            long key = keys.get(slot);
+            if (key == sku) {
+                return slot;
+            }
+            if (key == EMPTY) {
+                if (!create) {
+                    return -1;
+                }
+                if (keys.compareAndSet(slot, EMPTY, sku)) {
+                    return slot;
+                }
+                // Lost the race for this slot: re-read it, it may be our SKU.
+                continue;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (create) {
+            throw new IllegalStateException("Inventory table is full (" + (mask + 1) + " slots)");
+        }
+        return -1;
+    }
+
+    private static int mix(long sku) {
+        long h = sku * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static void sortBySlot(int[] slots, int[] quantities) {
+        // Carts are short, so an insertion sort beats boxing into a comparator.
+        for (int i = 1; i < slots.length; i++) {
+            int slot = slots[i];
+            int quantity = quantities[i];
+            int j = i - 1;
+            while (j >= 0 && slots[j] > slot) {
+                slots[j + 1] = slots[j];
+                quantities[j + 1] = quantities[j];
+                j--;
+            }
+            slots[j + 1] = slot;
+            quantities[j + 1] = quantity;
+        }
+    }
+}
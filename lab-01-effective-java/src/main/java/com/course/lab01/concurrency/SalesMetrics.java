@@ -0,0 +1,194 @@
+package com.course.lab01.concurrency;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the CAS sell path.
+ * * PROBLEM: When sales stall we cannot tell if the 'while(true)' loop in
+ * sellItemSafe() is selling or just burning CPU on lost CAS races.
+ * * RULE: The metrics must not become a new hot spot. A plain AtomicLong
+ * counter would be one more cache line that every buyer fights over, so
+ * every counter here is a LongAdder (striped per core, summed on read).
+ * * Read it with {@link #snapshot()} or over JMX via {@link #register(String)}.
+ */
+public class SalesMetrics implements SalesMetricsMXBean {
+
+    /** Retries per sell, bucketed by powers of two. */
+    public static final String[] BUCKET_LABELS = {
+        "0", "1", "2", "3-4", "5-8", "9-16", "17-32", "33-64", "65+"
+    };
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder sold = new LongAdder();
+    private final LongAdder soldOut = new LongAdder();
+    private final LongAdder casRetries = new LongAdder();
+    private final LongAdder[] histogram = new LongAdder[BUCKET_LABELS.length];
+
+    public SalesMetrics() {
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * An immutable copy of the counters at one point in time.
+     * * Counters are read one after another while sales continue, so under
+     * load the totals may differ by the few sells that landed in between.
+     */
+    public record Snapshot(long attempts, long sold, long soldOut, long casRetries, long[] retryHistogram) {
+
+        public Snapshot {
+            retryHistogram = retryHistogram.clone();
+        }
+
+        /** A copy: changing it does not change the snapshot. */
+        @Override
+        public long[] retryHistogram() {
+            return retryHistogram.clone();
+        }
+
+        public double retriesPerAttempt() {
+            return attempts == 0 ? 0.0 : (double) casRetries / attempts;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder()
+                .append("attempts=").append(attempts)
+                .append(", sold=").append(sold)
+                .append(", soldOut=").append(soldOut)
+                .append(", casRetries=").append(casRetries)
+                .append(", retries/sell={");
+            for (int i = 0; i < retryHistogram.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(BUCKET_LABELS[i]).append('=').append(retryHistogram[i]);
+            }
+            return sb.append('}').toString();
+        }
+
+        // Records compare arrays by identity; two snapshots with the same counts are equal.
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Snapshot other
+                && attempts == other.attempts
+                && sold == other.sold
+                && soldOut == other.soldOut
+                && casRetries == other.casRetries
+                && Arrays.equals(retryHistogram, other.retryHistogram);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hash(attempts, sold, soldOut, casRetries) + Arrays.hashCode(retryHistogram);
+        }
+    }
+
+    void recordSale(int retries) {
+        attempts.increment();
+        sold.increment();
+        recordRetries(retries);
+    }
+
+    void recordSoldOut(int retries) {
+        attempts.increment();
+        soldOut.increment();
+        recordRetries(retries);
+    }
+
+    private void recordRetries(int retries) {
+        if (retries > 0) {
+            casRetries.add(retries);
+        }
+        histogram[bucket(retries)].increment();
+    }
+
+    static int bucket(int retries) {
+        if (retries <= 2) {
+            return retries;
+        }
+        // 3-4 -> 3, 5-8 -> 4, 9-16 -> 5 ...
+        int bucket = 33 - Integer.numberOfLeadingZeros(retries - 1);
+        return Math.min(bucket, BUCKET_LABELS.length - 1);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(attempts.sum(), sold.sum(), soldOut.sum(), casRetries.sum(), getRetryHistogram());
+    }
+
+    /**
+     * Registers this instance with the platform MBeanServer as
+     * "com.course.lab01:type=SalesMetrics,name=&lt;name&gt;".
+     */
+    public ObjectName register(String name) {
+        try {
+            ObjectName objectName = new ObjectName("com.course.lab01:type=SalesMetrics,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, objectName);
+            return objectName;
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("SalesMetrics '" + name + "' is already registered", e);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register SalesMetrics '" + name + "'", e);
+        }
+    }
+
+    @Override
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    @Override
+    public long getSold() {
+        return sold.sum();
+    }
+
+    @Override
+    public long getSoldOut() {
+        return soldOut.sum();
+    }
+
+    @Override
+    public long getCasRetries() {
+        return casRetries.sum();
+    }
+
+    @Override
+    public double getRetriesPerAttempt() {
+        long total = attempts.sum();
+        return total == 0 ? 0.0 : (double) casRetries.sum() / total;
+    }
+
+    @Override
+    public long[] getRetryHistogram() {
+        long[] counts = new long[histogram.length];
+        for (int i = 0; i < histogram.length; i++) {
+            counts[i] = histogram[i].sum();
+        }
+        return counts;
+    }
+
+    @Override
+    public String[] getRetryHistogramLabels() {
+        return BUCKET_LABELS.clone();
+    }
+
+    @Override
+    public void reset() {
+        attempts.reset();
+        sold.reset();
+        soldOut.reset();
+        casRetries.reset();
+        for (LongAdder bucket : histogram) {
+            bucket.reset();
+        }
+    }
+}
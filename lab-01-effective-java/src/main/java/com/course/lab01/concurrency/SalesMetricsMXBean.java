@@ -0,0 +1,26 @@
+package com.course.lab01.concurrency;
+
+/**
+ * JMX view of {@link SalesMetrics}.
+ * * Shows up in JConsole / VisualVM under "com.course.lab01".
+ */
+public interface SalesMetricsMXBean {
+
+    long getAttempts();
+
+    long getSold();
+
+    long getSoldOut();
+
+    long getCasRetries();
+
+    /** Average CAS retries per sell attempt. */
+    double getRetriesPerAttempt();
+
+    /** Retry histogram, one count per bucket of {@link SalesMetrics#BUCKET_LABELS}. */
+    long[] getRetryHistogram();
+
+    String[] getRetryHistogramLabels();
+
+    void reset();
+}
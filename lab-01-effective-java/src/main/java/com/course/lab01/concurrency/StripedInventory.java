@@ -0,0 +1,162 @@
+package com.course.lab01.concurrency;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The "Striped" Inventory.
+ * * PROBLEM: SalesManager keeps the whole stock in ONE AtomicInteger.
+ * Every buyer thread CASes the same cache line, so under a flash sale
+ * the CPUs spend their time bouncing that line around instead of selling.
+ * * FIX: Split the stock into one "cell" per core (like LongAdder does).
+ * Each thread sells from its own home cell. Only when that cell runs dry
+ * does it visit its neighbours and pull half of their stock over.
+ * * The public API matches SalesManager (sellItem / getStock) so the two
+ * can be swapped in the same test or benchmark.
+ */
+public class StripedInventory {
+
+    // 32 ints = 128 bytes: one cell per pair of cache lines, which also
+    // defeats the adjacent-line prefetcher on x86.
+    private static final int PAD = 32;
+
+    // Cells live at index (i + 1) * PAD. Slot 0 stays empty so the first
+    // cell does not share a line with the array header.
+    private final AtomicIntegerArray cells;
+    private final int mask;
+
+    // Stock moving between two cells is briefly in neither of them.
+    // These counters let a buyer tell "really sold out" from "mid-transfer".
+    private final AtomicLong transfersStarted = new AtomicLong();
+    private final AtomicLong transfersCompleted = new AtomicLong();
+
+    public StripedInventory(int initialStock) {
+        this(initialStock, Runtime.getRuntime().availableProcessors());
+    }
+
+    public StripedInventory(int initialStock, int stripes) {
+        if (initialStock < 0) {
+            throw new IllegalArgumentException("initialStock must be >= 0");
+        }
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be >= 1");
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.cells = new AtomicIntegerArray((size + 1) * PAD);
+
+        // Spread the stock evenly; the first 'remainder' cells get one extra.
+        int share = initialStock / size;
+        int remainder = initialStock % size;
+        for (int i = 0; i < size; i++) {
+            cells.set(slot(i), share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    /**
+     * Sells one item. Never oversells: a cell is only ever decremented by
+     * a successful CAS from a positive value.
+     *
+     * @return true if an item was sold, false if the inventory is sold out
+     */
+    public boolean sellItem() {
+        int home = homeCell();
+
+        while (true) {
+            // Read the transfer counters BEFORE looking at any cell, so a
+            // transfer that lands while we look is always noticed in step 3.
+            long completedBefore = transfersCompleted.get();
+            long startedBefore = transfersStarted.get();
+
+            // 1. Fast path: our own cell, no other core touches this line.
+            if (takeOne(home)) {
+                return true;
+            }
+
+            // 2. Our cell is dry: try to pull stock from the neighbours.
+            for (int step = 1; step <= mask; step++) {
+                if (rebalanceFrom((home + step) & mask, home)) {
+                    return true;
+                }
+            }
+
+            // 3. Every cell looked empty. That only counts as "sold out" if
+            // no transfer was in flight when we started and none began since.
+            if (completedBefore == startedBefore && transfersStarted.get() == startedBefore) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public int getStock() {
+        int total = 0;
+        for (int i = 0; i <= mask; i++) {
+            total += cells.get(slot(i));
+        }
+        return total;
+    }
+
+    int stripes() {
+        return mask + 1;
+    }
+
+    private boolean takeOne(int cell) {
+        int index = slot(cell);
+        while (true) {
+            int current = cells.get(index);
+            if (current <= 0) {
+                return false;
+            }
+            if (cells.compareAndSet(index, current, current - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes half of the donor's stock (rounded up): one item is sold right
+     * away, the rest is moved into the home cell for the next sales.
+     */
+    private boolean rebalanceFrom(int donor, int home) {
+        int donorIndex = slot(donor);
+        while (true) {
+            int available = cells.get(donorIndex);
+            if (available <= 0) {
+                return false;
+            }
+            int take = (available + 1) >>> 1;
+
+            if (take == 1) {
+                // Nothing to move, just sell the single item directly.
+                if (cells.compareAndSet(donorIndex, available, available - 1)) {
+                    return true;
+                }
+                continue;
+            }
+
+            transfersStarted.incrementAndGet();
+            try {
+                if (cells.compareAndSet(donorIndex, available, available - take)) {
+                    cells.addAndGet(slot(home), take - 1);
+                    return true;
+                }
+            } finally {
+                transfersCompleted.incrementAndGet();
+            }
+        }
+    }
+
+    private int homeCell() {
+        // Fibonacci hashing spreads sequential thread ids across the cells.
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private static int slot(int cell) {
+        return (cell + 1) * PAD;
+    }
+}
@@ -0,0 +1,158 @@
+package com.course.lab01.inspector;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The "Census" Inspector.
+ * * Like SmartInspector, it only ever sees List&lt;?&gt;: the compiler guarantees
+ * it cannot add anything to the caller's data. On top of that it never copies
+ * or wraps the list either. It makes ONE parallel pass straight over the
+ * list's own spliterator and reports:
+ * - how many elements of each runtime type,
+ * - how many nulls,
+ * - min / max per type, for types whose elements compare with each other.
+ * * For huge inputs it can sample instead of scanning everything.
+ */
+public class CensusInspector {
+
+    /**
+     * Per-type statistics. min and max are null for types that are not
+     * Comparable, or whose compareTo rejects its own class (a
+     * Comparable&lt;SomethingElse&gt;).
+     */
+    public record TypeStats(long count, Object min, Object max) {}
+
+    /**
+     * @param total   size of the inspected list
+     * @param scanned how many elements were actually looked at
+     * @param sampled true if scanned &lt; total because of sampling
+     */
+    public record Census(long total, long scanned, boolean sampled, long nulls, Map<Class<?>, TypeStats> types) {}
+
+    public Census census(List<?> data) {
+        Accumulator result = StreamSupport.stream(data.spliterator(), true)
+            .collect(Accumulator::new, Accumulator::accept, Accumulator::combine);
+        return result.toCensus(data.size(), false);
+    }
+
+    /**
+     * Scans at most 'sampleLimit' evenly spaced elements. Sampling needs cheap
+     * get(i), so a list without RandomAccess (e.g. LinkedList) is fully scanned.
+     */
+    public Census census(List<?> data, int sampleLimit) {
+        if (sampleLimit < 1) {
+            throw new IllegalArgumentException("sampleLimit must be >= 1");
+        }
+        int size = data.size();
+        if (size <= sampleLimit || !(data instanceof RandomAccess)) {
+            return census(data);
+        }
+        Accumulator result = IntStream.range(0, sampleLimit).parallel()
+            .mapToObj(i -> data.get((int) ((long) i * size / sampleLimit)))
+            .collect(Accumulator::new, Accumulator::accept, Accumulator::combine);
+        return result.toCensus(size, true);
+    }
+
+    /**
+     * Mutable, per-thread container used by the parallel collect().
+     * Each worker fills its own, then they are merged pairwise.
+     */
+    private static final class Accumulator {
+        private final Map<Class<?>, MutableStats> types = new HashMap<>();
+        private long scanned;
+        private long nulls;
+
+        void accept(Object element) {
+            scanned++;
+            if (element == null) {
+                nulls++;
+                return;
+            }
+            types.computeIfAbsent(element.getClass(), type -> new MutableStats()).accept(element);
+        }
+
+        void combine(Accumulator other) {
+            scanned += other.scanned;
+            nulls += other.nulls;
+            other.types.forEach((type, stats) -> types.merge(type, stats, MutableStats::merge));
+        }
+
+        Census toCensus(long total, boolean sampled) {
+            Map<Class<?>, TypeStats> snapshot = new HashMap<>();
+            types.forEach((type, stats) -> snapshot.put(type, new TypeStats(stats.count, stats.min, stats.max)));
+            return new Census(total, scanned, sampled, nulls, Collections.unmodifiableMap(snapshot));
+        }
+    }
+
+    private static final class MutableStats {
+        private long count;
+        private Object min;
+        private Object max;
+        private boolean incomparable;
+
+        void accept(Object element) {
+            count++;
+            if (incomparable || !(element instanceof Comparable<?>)) {
+                return;
+            }
+            try {
+                if (min == null) {
+                    // A type that cannot compare its own instances fails right here.
+                    compare(element, element);
+                    min = element;
+                    max = element;
+                    return;
+                }
+                if (compare(element, min) < 0) {
+                    min = element;
+                }
+                if (compare(element, max) > 0) {
+                    max = element;
+                }
+            } catch (ClassCastException e) {
+                markIncomparable();
+            }
+        }
+
+        MutableStats merge(MutableStats other) {
+            count += other.count;
+            if (other.incomparable) {
+                markIncomparable();
+            }
+            if (incomparable) {
+                return this;
+            }
+            try {
+                if (other.min != null && (min == null || compare(other.min, min) < 0)) {
+                    min = other.min;
+                }
+                if (other.max != null && (max == null || compare(other.max, max) > 0)) {
+                    max = other.max;
+                }
+            } catch (ClassCastException e) {
+                markIncomparable();
+            }
+            return this;
+        }
+
+        private void markIncomparable() {
+            incomparable = true;
+            min = null;
+            max = null;
+        }
+
+        // Both values have the same runtime class (stats are kept per class),
+        // but compareTo may still expect another type: callers catch the
+        // ClassCastException.
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static int compare(Object a, Object b) {
+            return ((Comparable) a).compareTo(b);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.course.lab01.mover;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The "Bulk" Mover.
+ * * Same type-safe contract as SecureMover (PECS: read from a producer
+ * "? extends T", write into a consumer "? super T"), but built for
+ * million-row buffers:
+ * - addAll() moves the whole source with one array copy instead of
+ *   calling add() per element, and an ArrayList grows at most once for it.
+ * * For numbers, use IntList / LongList / DoubleList: no boxing at all.
+ */
+public class BulkMover {
+
+    /**
+     * Appends every element of source to destination.
+     */
+    public <T> void moveData(Collection<? extends T> source, List<? super T> destination) {
+        // ArrayList.addAll: source.toArray(), at most one grow to the final size,
+        // then System.arraycopy. Pre-sizing with ensureCapacity would add nothing.
+        destination.addAll(source);
+    }
+
+    /**
+     * A new, exactly sized ArrayList holding the source elements.
+     */
+    public <T> List<T> copyOf(Collection<? extends T> source) {
+        return new ArrayList<>(source);
+    }
+}
@@ -0,0 +1,77 @@
+package com.course.lab01.mover;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive doubles.
+ * * List&lt;Double&gt; stores a pointer to a 24-byte Double object per element;
+ * this stores 8 bytes per element in one double[] and moves data with arraycopy.
+ */
+public final class DoubleList {
+
+    private double[] elements;
+    private int size;
+
+    public DoubleList() {
+        this(16);
+    }
+
+    public DoubleList(int initialCapacity) {
+        this.elements = new double[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(double value) {
+        ensureCapacity(size + 1);
+        elements[size++] = value;
+    }
+
+    public void addAll(double[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    public void addAll(double[] values, int from, int length) {
+        // At most one grow for the whole batch (see ensureCapacity), then one arraycopy.
+        ensureCapacity(size + length);
+        System.arraycopy(values, from, elements, size, length);
+        size += length;
+    }
+
+    public void addAll(DoubleList other) {
+        addAll(other.elements, 0, other.size);
+    }
+
+    /**
+     * Appends everything to 'destination' and empties this list.
+     */
+    public void moveTo(DoubleList destination) {
+        destination.addAll(this);
+        clear();
+    }
+
+    public double get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public double[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            // Grow by 1.5x like ArrayList, or straight to 'capacity' for bulk adds.
+            int grown = elements.length + (elements.length >> 1);
+            elements = Arrays.copyOf(elements, Math.max(grown, capacity));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.course.lab01.mover;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive ints.
+ * * List&lt;Integer&gt; stores a pointer to a 16-byte Integer object per element;
+ * this stores 4 bytes per element in one int[] and moves data with arraycopy.
+ */
+public final class IntList {
+
+    private int[] elements;
+    private int size;
+
+    public IntList() {
+        this(16);
+    }
+
+    public IntList(int initialCapacity) {
+        this.elements = new int[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(int value) {
+        ensureCapacity(size + 1);
+        elements[size++] = value;
+    }
+
+    public void addAll(int[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    public void addAll(int[] values, int from, int length) {
+        // At most one grow for the whole batch (see ensureCapacity), then one arraycopy.
+        ensureCapacity(size + length);
+        System.arraycopy(values, from, elements, size, length);
+        size += length;
+    }
+
+    public void addAll(IntList other) {
+        addAll(other.elements, 0, other.size);
+    }
+
+    /**
+     * Appends everything to 'destination' and empties this list.
+     */
+    public void moveTo(IntList destination) {
+        destination.addAll(this);
+        clear();
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            // Grow by 1.5x like ArrayList, or straight to 'capacity' for bulk adds.
+            int grown = elements.length + (elements.length >> 1);
+            elements = Arrays.copyOf(elements, Math.max(grown, capacity));
+        }
+    }
+}
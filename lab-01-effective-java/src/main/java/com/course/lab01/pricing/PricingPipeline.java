@@ -0,0 +1,214 @@
+package com.course.lab01.pricing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * The "Compiled" Pricing Pipeline.
+ * * PROBLEM: FunctionalPricing chains Function&lt;Double, Double&gt;. Every step
+ * boxes and unboxes the price, and a long chain of andThen() lambdas is
+ * megamorphic, so the JIT cannot inline through it.
+ * * FIX: Describe the rules first, then compile them once:
+ * 1. Everything works on primitive doubles (DoubleUnaryOperator).
+ * 2. Linear rules (tax = multiply, discount = add) are fused into
+ *    "affine" steps of the form  price * a + b.
+ * 3. Batches run step by step over a double[], a plain loop the JIT can vectorize.
+ * * EXACTNESS: Results must be bit-for-bit equal to LegacyPricing.calculate.
+ * Floating point is not associative: (x * 1.2) * 1.1 is NOT always equal to
+ * x * 1.32. So we only fuse a multiply with the add that FOLLOWS it, which
+ * performs exactly the same two operations in the same order.
+ * Tax-then-discount becomes one step; discount-then-tax stays two.
+ *
+ * <pre>
+ * PricingPipeline standard = PricingPipeline.builder().tax(1.20).discount(10.00).build();
+ * double price = standard.applyAsDouble(100.00); // 110.0
+ * </pre>
+ */
+public final class PricingPipeline implements DoubleUnaryOperator {
+
+    // x + (-0.0) == x for every x, including -0.0 (x + 0.0 would turn -0.0 into 0.0).
+    private static final double NO_ADD = -0.0;
+
+    private final Stage[] stages;
+    private final int affineSteps;
+
+    private PricingPipeline(Stage[] stages, int affineSteps) {
+        this.stages = stages;
+        this.affineSteps = affineSteps;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public double applyAsDouble(double price) {
+        double x = price;
+        for (Stage stage : stages) {
+            x = stage.applyAsDouble(x);
+        }
+        return x;
+    }
+
+    /**
+     * Prices a whole batch into a new array.
+     */
+    public double[] apply(double[] prices) {
+        double[] result = prices.clone();
+        applyInPlace(result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Prices [from, to) in place. Runs stage by stage over the slice, so each
+     * affine stage is one tight loop: result[i] = result[i] * a + b.
+     */
+    public void applyInPlace(double[] prices, int from, int to) {
+        for (Stage stage : stages) {
+            stage.applyInPlace(prices, from, to);
+        }
+    }
+
+    /** Number of affine steps left after fusion (for tests and tuning). */
+    public int affineSteps() {
+        return affineSteps;
+    }
+
+    /** Number of compiled stages, including opaque custom rules. */
+    public int stages() {
+        return stages.length;
+    }
+
+    // --- Compiled stages -------------------------------------------------
+
+    private sealed interface Stage extends DoubleUnaryOperator permits Affine, Opaque {
+        void applyInPlace(double[] prices, int from, int to);
+    }
+
+    private record Affine(double a, double b) implements Stage {
+        @Override
+        public double applyAsDouble(double x) {
+            // Deliberately NOT Math.fma: that would round once instead of twice.
+            return x * a + b;
+        }
+
+        @Override
+        public void applyInPlace(double[] prices, int from, int to) {
+            for (int i = from; i < to; i++) {
+                prices[i] = prices[i] * a + b;
+            }
+        }
+    }
+
+    private record Opaque(DoubleUnaryOperator rule) implements Stage {
+        @Override
+        public double applyAsDouble(double x) {
+            return rule.applyAsDouble(x);
+        }
+
+        @Override
+        public void applyInPlace(double[] prices, int from, int to) {
+            for (int i = from; i < to; i++) {
+                prices[i] = rule.applyAsDouble(prices[i]);
+            }
+        }
+    }
+
+    // --- Builder -----------------------------------------------------------
+
+    /**
+     * Collects the rules in order. build() does the fusion.
+     */
+    public static final class Builder {
+
+        private enum Kind { MULTIPLY, ADD, CUSTOM }
+
+        private record Rule(Kind kind, double value, DoubleUnaryOperator custom) {}
+
+        private final List<Rule> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /** price * rate (e.g. 1.20 for 20% tax). */
+        public Builder tax(double rate) {
+            return multiply(rate);
+        }
+
+        /** price - amount (e.g. the $10 VIP discount). */
+        public Builder discount(double amount) {
+            return add(-amount);
+        }
+
+        public Builder multiply(double factor) {
+            rules.add(new Rule(Kind.MULTIPLY, factor, null));
+            return this;
+        }
+
+        public Builder add(double amount) {
+            rules.add(new Rule(Kind.ADD, amount, null));
+            return this;
+        }
+
+        /** Any other rule (rounding, caps ...). Kept as-is, never fused. */
+        public Builder then(DoubleUnaryOperator rule) {
+            rules.add(new Rule(Kind.CUSTOM, 0, rule));
+            return this;
+        }
+
+        public PricingPipeline build() {
+            List<Stage> stages = new ArrayList<>();
+            int affineSteps = 0;
+
+            // The affine step being filled: x * a + b
+            boolean open = false;
+            boolean hasAdd = false;
+            double a = 1.0;
+            double b = NO_ADD;
+
+            for (Rule rule : rules) {
+                switch (rule.kind()) {
+                    case MULTIPLY -> {
+                        // A multiply can only START a step (see class comment).
+                        if (open) {
+                            stages.add(new Affine(a, b));
+                            affineSteps++;
+                        }
+                        open = true;
+                        hasAdd = false;
+                        a = rule.value();
+                        b = NO_ADD;
+                    }
+                    case ADD -> {
+                        if (open && hasAdd) {
+                            stages.add(new Affine(a, b));
+                            affineSteps++;
+                            open = false;
+                        }
+                        if (!open) {
+                            // x * 1.0 is exact, so a lone add is still one affine step.
+                            open = true;
+                            a = 1.0;
+                        }
+                        hasAdd = true;
+                        b = rule.value();
+                    }
+                    case CUSTOM -> {
+                        if (open) {
+                            stages.add(new Affine(a, b));
+                            affineSteps++;
+                            open = false;
+                        }
+                        stages.add(new Opaque(rule.custom()));
+                    }
+                }
+            }
+            if (open) {
+                stages.add(new Affine(a, b));
+                affineSteps++;
+            }
+            return new PricingPipeline(stages.toArray(Stage[]::new), affineSteps);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.course.lab01.pricing;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The "Table-Driven" Pricing Engine.
+ * * PROBLEM: LegacyPricing hard-codes Tax -> Discount. FunctionalPricing lets
+ * us reorder rules, but every caller has to assemble the pipeline by hand.
+ * * FIX: Each customer segment lists its rules in a file. The engine compiles
+ * one PricingPipeline per segment ONCE and keeps them in an immutable map.
+ * * HOT RELOAD: A reload builds a brand-new map and swaps it in with a single
+ * volatile write. Readers never lock: they see either the old table or the
+ * new one, never a half-built mix.
+ *
+ * <pre>
+ * # pricing-rules.properties: segment = rule, rule, ...
+ * STANDARD  = tax:1.20, discount:10.00
+ * VIP       = discount:10.00, tax:1.20
+ * WHOLESALE = multiply:0.85, tax:1.20, round:2
+ * </pre>
+ *
+ * Rules: tax:rate, discount:amount, multiply:factor, add:amount, round:decimals.
+ *
+ * <pre>
+ * PricingRuleEngine engine = PricingRuleEngine.load(Path.of("pricing-rules.properties"));
+ * engine.watch(Duration.ofSeconds(5));
+ * </pre>
+ */
+public class PricingRuleEngine implements AutoCloseable {
+
+    private final Path rulesFile;
+    private volatile Map<String, PricingPipeline> pipelines;
+    private volatile FileTime loadedVersion;
+    private ScheduledExecutorService watcher;
+
+    // Watcher thread only: the version of the last broken file that was reported.
+    private boolean failureReported;
+    private FileTime failedVersion;
+
+    private PricingRuleEngine(Path rulesFile, Map<String, PricingPipeline> pipelines, FileTime loadedVersion) {
+        this.rulesFile = rulesFile;
+        this.pipelines = pipelines;
+        this.loadedVersion = loadedVersion;
+    }
+
+    /**
+     * Reads and compiles the rules file. An invalid file is thrown, not half-loaded.
+     */
+    public static PricingRuleEngine load(Path rulesFile) {
+        try {
+            FileTime version = Files.getLastModifiedTime(rulesFile);
+            return new PricingRuleEngine(rulesFile, compile(read(rulesFile)), version);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read pricing rules " + rulesFile, e);
+        }
+    }
+
+    /**
+     * The read path: one volatile read, one map lookup, one compiled pipeline.
+     */
+    public double price(String segment, double price) {
+        return pipeline(segment).applyAsDouble(price);
+    }
+
+    /**
+     * For callers that price many items of the same segment: look up once,
+     * then call applyAsDouble / apply(double[]) directly.
+     */
+    public PricingPipeline pipeline(String segment) {
+        PricingPipeline pipeline = pipelines.get(segment);
+        if (pipeline == null) {
+            throw new IllegalArgumentException("Unknown customer segment: " + segment);
+        }
+        return pipeline;
+    }
+
+    /**
+     * Re-reads the rules file and swaps in the new table.
+     * If the file is invalid, the current table stays in place and the error is thrown.
+     */
+    public synchronized void reload() {
+        try {
+            FileTime version = Files.getLastModifiedTime(rulesFile);
+            Map<String, PricingPipeline> compiled = compile(read(rulesFile));
+            pipelines = compiled;   // the atomic swap
+            loadedVersion = version;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read pricing rules " + rulesFile, e);
+        }
+    }
+
+    /**
+     * Reloads only if the file changed since the last load.
+     *
+     * @return true if a new table was loaded
+     */
+    public synchronized boolean reloadIfChanged() {
+        try {
+            if (Files.getLastModifiedTime(rulesFile).equals(loadedVersion)) {
+                return false;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot check pricing rules " + rulesFile, e);
+        }
+        reload();
+        return true;
+    }
+
+    /**
+     * Checks the file every 'interval' on a background thread. A broken file
+     * is reported once and skipped until it changes again; pricing keeps
+     * using the last good table.
+     */
+    public synchronized void watch(Duration interval) {
+        if (watcher != null) {
+            throw new IllegalStateException("Already watching " + rulesFile);
+        }
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pricing-rules-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        watcher.scheduleWithFixedDelay(this::checkForChanges, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /** One watcher poll. Package-private for tests. */
+    void checkForChanges() {
+        FileTime version = null;
+        try {
+            version = Files.getLastModifiedTime(rulesFile);
+            if (failureReported && version.equals(failedVersion)) {
+                return; // same broken file as last time: already reported
+            }
+            reloadIfChanged();
+            failureReported = false;
+        } catch (IOException | RuntimeException e) {
+            if (!failureReported || !Objects.equals(version, failedVersion)) {
+                System.err.println("Pricing rules reload failed, keeping previous table: " + e.getMessage());
+            }
+            failureReported = true;
+            failedVersion = version;
+        }
+    }
+
+    public Set<String> segments() {
+        return pipelines.keySet();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+
+    private static Properties read(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    static Map<String, PricingPipeline> compile(Properties table) {
+        Map<String, PricingPipeline> compiled = new HashMap<>();
+        for (String segment : table.stringPropertyNames()) {
+            compiled.put(segment.trim(), compileSegment(segment, table.getProperty(segment)));
+        }
+        return Map.copyOf(compiled);
+    }
+
+    private static PricingPipeline compileSegment(String segment, String rules) {
+        PricingPipeline.Builder builder = PricingPipeline.builder();
+        for (String rule : rules.split(",")) {
+            String trimmed = rule.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Segment " + segment + ": rule '" + trimmed + "' has no value");
+            }
+            String name = trimmed.substring(0, colon).trim();
+            double value;
+            try {
+                value = Double.parseDouble(trimmed.substring(colon + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Segment " + segment + ": bad number in '" + trimmed + "'", e);
+            }
+            switch (name) {
+                case "tax" -> builder.tax(value);
+                case "discount" -> builder.discount(value);
+                case "multiply" -> builder.multiply(value);
+                case "add" -> builder.add(value);
+                case "round" -> {
+                    double scale = Math.pow(10, (int) value);
+                    builder.then(price -> Math.round(price * scale) / scale);
+                }
+                default -> throw new IllegalArgumentException("Segment " + segment + ": unknown rule '" + name + "'");
+            }
+        }
+        return builder.build();
+    }
+}
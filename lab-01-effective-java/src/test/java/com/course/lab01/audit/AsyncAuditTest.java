@@ -0,0 +1,114 @@
+package com.course.lab01.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncAuditTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testBlockPolicy_WritesEveryLine() throws Exception {
+        Path file = dir.resolve("audit.log");
+        ExecutorService service = Executors.newFixedThreadPool(4);
+
+        // A tiny buffer forces the producers to wait for the drain thread.
+        try (AsyncAuditAppender appender = new AsyncAuditAppender(file, 16, AsyncAuditAppender.OverflowPolicy.BLOCK)) {
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                service.submit(() -> {
+                    for (int i = 0; i < 2_500; i++) {
+                        appender.append("T" + thread + "-" + i);
+                    }
+                });
+            }
+            service.shutdown();
+            assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+
+            appender.flush();
+            assertEquals(10_000, appender.getWritten());
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(10_000, lines.size());
+        assertTrue(lines.contains("T3-2499"));
+    }
+
+    @Test
+    void testNullMessage_IsRejectedAndDrainKeepsRunning() throws Exception {
+        Path file = dir.resolve("audit-null.log");
+
+        try (AsyncAuditAppender appender = new AsyncAuditAppender(file, 4, AsyncAuditAppender.OverflowPolicy.BLOCK)) {
+            assertThrows(NullPointerException.class, () -> appender.append(null));
+            for (int i = 0; i < 100; i++) {
+                appender.append("after-" + i); // would hang if the drain thread had died
+            }
+            appender.flush();
+            assertEquals(100, appender.getWritten());
+        }
+    }
+
+    @Test
+    void testDropPolicy_NeverBlocksAndCountsDrops() throws IOException {
+        Path file = dir.resolve("audit-drop.log");
+        long appended;
+        long dropped;
+
+        try (AsyncAuditAppender appender = new AsyncAuditAppender(file, 4, AsyncAuditAppender.OverflowPolicy.DROP)) {
+            for (int i = 0; i < 1_000; i++) {
+                appender.append("line-" + i);
+            }
+            appended = appender.getAppended();
+            dropped = appender.getDropped();
+        }
+
+        assertEquals(1_000, appended + dropped);
+        assertEquals(appended, Files.readAllLines(file).size(), "Every accepted line reaches the file.");
+    }
+
+    @Test
+    void testClosedAppender_DropsUnderDropAndThrowsUnderBlock() {
+        AsyncAuditAppender drop = new AsyncAuditAppender(dir.resolve("drop.log"), 4, AsyncAuditAppender.OverflowPolicy.DROP);
+        drop.close();
+        assertFalse(drop.append("too late"), "DROP must never throw into the pricing path.");
+        assertEquals(1, drop.getDropped());
+
+        AsyncAuditAppender block = new AsyncAuditAppender(dir.resolve("block.log"), 4, AsyncAuditAppender.OverflowPolicy.BLOCK);
+        block.close();
+        assertThrows(IllegalStateException.class, () -> block.append("too late"));
+    }
+
+    @Test
+    void testLoggers_RouteToAppender() throws IOException {
+        Path file = dir.resolve("legacy.log");
+        LegacyLogging.LOGGING_ENABLED = true;
+        try (AsyncAuditAppender appender = new AsyncAuditAppender(file, 64, AsyncAuditAppender.OverflowPolicy.BLOCK)) {
+            LegacyLogging.AUDIT_APPENDER = appender;
+            SmartLogging.AUDIT_APPENDER = appender;
+
+            LegacyLogging.calculateWithEagerLog(100.00);
+            SmartLogging.write("LOG: smart");
+        } finally {
+            LegacyLogging.LOGGING_ENABLED = false;
+            LegacyLogging.AUDIT_APPENDER = null;
+            SmartLogging.AUDIT_APPENDER = null;
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("Audit Trail ID: TX-"));
+        assertEquals("LOG: smart", lines.get(1));
+    }
+}
@@ -4,7 +4,9 @@ import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 import java.util.List;
 import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTimeout;
 
@@ -33,4 +35,41 @@ public class BatchTest {
             
         // }, "The stream pipeline was too slow! Check if you are Eagerly evaluating strings.");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPrimitivePipeline_MatchesBoxedMath() {
+        double[] prices = new double[1000];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = i * 0.37;
+        }
+
+        double[] taxed = BatchAudit.processPrimitive(prices, BatchAudit.NO_SINK);
+
+        for (int i = 0; i < prices.length; i++) {
+            Double boxed = prices[i] * 1.20;
+            assertEquals(boxed, taxed[i], 0.0);
+        }
+        assertArrayEquals(taxed, BatchAudit.processStream(Arrays.stream(prices)).toArray(), 0.0);
+    }
+
+    @Test
+    void testParallelPipeline_SinkSeesEveryPriceOnce() {
+        // Several chunks, so the work really is split across the pool.
+        double[] prices = new double[BatchAudit.PARALLEL_CHUNK * 4 + 123];
+        Arrays.fill(prices, 100.00);
+        LongAdder seen = new LongAdder();
+
+        boolean loggingWas = SmartLogging.LOGGING_ENABLED;
+        SmartLogging.LOGGING_ENABLED = false;
+        try {
+            double[] taxed = BatchAudit.processParallel(prices, (results, from, to) -> seen.add(to - from));
+
+            assertEquals(prices.length, seen.sum());
+            assertEquals(120.00, taxed[0], 0.001);
+            assertEquals(120.00, taxed[taxed.length - 1], 0.001);
+            assertArrayEquals(BatchAudit.processPrimitive(prices, BatchAudit.smartLogSink()), taxed, 0.0);
+        } finally {
+            SmartLogging.LOGGING_ENABLED = loggingWas;
+        }
+    }
+}
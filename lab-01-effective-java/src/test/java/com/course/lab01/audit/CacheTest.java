@@ -0,0 +1,152 @@
+package com.course.lab01.audit;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CacheTest {
+
+    @Test
+    void testSingleFlight_LoadsOncePerKey() throws InterruptedException {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService service = Executors.newFixedThreadPool(10);
+
+        for (int i = 0; i < 10; i++) {
+            service.submit(() -> {
+                start.await();
+                return cache.get("price-100", key -> {
+                    loads.incrementAndGet();
+                    sleep(100);
+                    return "TRAIL";
+                });
+            });
+        }
+        start.countDown();
+        service.shutdown();
+        service.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertEquals(1, loads.get(), "10 concurrent requests should trigger ONE computation.");
+        assertEquals(9, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void testLru_EvictsLeastRecentlyUsed() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(2, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, k -> "one" + loads.incrementAndGet());
+        cache.get(2, k -> "two" + loads.incrementAndGet());
+        cache.get(1, k -> "one" + loads.incrementAndGet()); // touch 1, so 2 is now eldest
+        cache.get(3, k -> "three" + loads.incrementAndGet()); // evicts 2
+
+        assertEquals("one1", cache.get(1, k -> "reloaded"));
+        assertEquals("reloaded", cache.get(2, k -> "reloaded"));
+        assertTrue(cache.stats().evictions() >= 1);
+        assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    void testLru_NeverEvictsALoadInFlight() throws Exception {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(1, Duration.ZERO);
+        AtomicInteger slowLoads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = service.submit(() -> cache.get(1, k -> {
+                slowLoads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "slow";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // Key 1 is the eldest, but still loading: key 2 must not push it out.
+            // Once loaded, key 2 is the only finished entry, so it goes instead.
+            assertEquals("two", cache.get(2, k -> "two"));
+            assertEquals(1, cache.stats().size());
+            assertEquals(1, cache.stats().evictions());
+
+            release.countDown();
+            assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+            assertEquals("slow", cache.get(1, k -> "second load"));
+            assertEquals(1, slowLoads.get(), "A second caller must join the load in flight, not start another.");
+        } finally {
+            release.countDown();
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTtl_ExpiresOldEntries() {
+        AtomicLong now = new AtomicLong();
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofSeconds(1), now::get);
+
+        assertEquals("v1", cache.get("k", k -> "v1"));
+        now.addAndGet(Duration.ofMillis(999).toNanos());
+        assertEquals("v1", cache.get("k", k -> "v2"));
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        assertEquals("v2", cache.get("k", k -> "v2"));
+        assertEquals(1, cache.stats().expirations());
+    }
+
+    @Test
+    void testFailedLoad_IsNotCached() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ZERO);
+
+        assertThrows(IllegalStateException.class,
+            () -> cache.get("k", k -> { throw new IllegalStateException("DB down"); }));
+        assertEquals("ok", cache.get("k", k -> "ok"));
+    }
+
+    @Test
+    void testMemoizingSupplier_RunsOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> message = MemoizingSupplier.of(() -> "LOG-" + calls.incrementAndGet());
+
+        assertEquals("LOG-1", message.get());
+        assertEquals("LOG-1", message.get());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testCachedAuditTrail_RepeatedPriceIsFast() {
+        CachedAuditTrail trails = new CachedAuditTrail(100, Duration.ofMinutes(5));
+        String first = trails.generate(100.00); // pays the 500ms once
+
+        assertTimeout(Duration.ofMillis(100), () -> {
+            assertEquals(first, trails.generate(100.00));
+        }, "A repeated price should come from the cache.");
+        assertEquals(0.5, trails.stats().hitRate(), 0.001);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
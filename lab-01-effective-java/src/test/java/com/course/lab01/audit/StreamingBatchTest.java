@@ -0,0 +1,108 @@
+package com.course.lab01.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StreamingBatchTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testStreaming_MatchesInMemoryMath() throws IOException {
+        Path input = writeInvoices(dir.resolve("invoices.bin"), 10_000);
+        Path output = dir.resolve("taxed.bin");
+
+        long processed = StreamingBatchAudit.process(input, output, dir.resolve("taxed.ckpt"), 1_024);
+
+        assertEquals(10_000, processed);
+        assertTaxed(output, 10_000);
+    }
+
+    @Test
+    void testChunkSize_IsBounded() throws IOException {
+        Path input = writeInvoices(dir.resolve("invoices.bin"), 10);
+        Path output = dir.resolve("taxed.bin");
+        Path checkpoint = dir.resolve("taxed.ckpt");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> StreamingBatchAudit.process(input, output, checkpoint, 0));
+        // Would need a mapping larger than 2 GB per file: rejected before anything is opened.
+        assertThrows(IllegalArgumentException.class,
+            () -> StreamingBatchAudit.process(input, output, checkpoint, Integer.MAX_VALUE));
+        assertFalse(Files.exists(output));
+
+        assertEquals(10, StreamingBatchAudit.process(input, output, checkpoint, StreamingBatchAudit.MAX_CHUNK_PRICES));
+        assertTaxed(output, 10);
+    }
+
+    @Test
+    void testFreshRun_TruncatesStaleLargerOutput() throws IOException {
+        Path output = dir.resolve("taxed.bin");
+        Path checkpoint = dir.resolve("taxed.ckpt");
+        Path big = writeInvoices(dir.resolve("big.bin"), 5_000);
+        StreamingBatchAudit.process(big, output, checkpoint, 1_000);
+        Files.delete(checkpoint);
+
+        Path small = writeInvoices(dir.resolve("small.bin"), 2_000);
+        assertEquals(2_000, StreamingBatchAudit.process(small, output, checkpoint, 1_000));
+
+        assertTaxed(output, 2_000); // also checks the size: no stale prices after the new ones
+    }
+
+    @Test
+    void testResume_RejectsCheckpointOfAnotherOutput() throws IOException {
+        Path input = writeInvoices(dir.resolve("invoices.bin"), 5_000);
+        Path checkpoint = dir.resolve("taxed.ckpt");
+        StreamingBatchAudit.process(input, dir.resolve("taxed.bin"), checkpoint, 1_000, 3);
+
+        assertThrows(IllegalStateException.class,
+            () -> StreamingBatchAudit.process(input, dir.resolve("other.bin"), checkpoint, 1_000));
+    }
+
+    @Test
+    void testStreaming_ResumesFromCheckpoint() throws IOException {
+        Path input = writeInvoices(dir.resolve("invoices.bin"), 10_000);
+        Path output = dir.resolve("taxed.bin");
+        Path checkpoint = dir.resolve("taxed.ckpt");
+
+        // 1. "Crash" after 3 chunks of 1000
+        assertEquals(3_000, StreamingBatchAudit.process(input, output, checkpoint, 1_000, 3));
+        assertEquals(3_000, StreamingBatchAudit.readCheckpoint(checkpoint));
+
+        // 2. Restart: only the remaining 7000 are processed
+        assertEquals(7_000, StreamingBatchAudit.process(input, output, checkpoint, 1_000));
+        assertTaxed(output, 10_000);
+
+        // 3. Running again is a no-op
+        assertEquals(0, StreamingBatchAudit.process(input, output, checkpoint, 1_000));
+    }
+
+    private static Path writeInvoices(Path file, int count) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (int i = 0; i < count; i++) {
+                out.writeDouble(i * 0.25);
+            }
+        }
+        return file;
+    }
+
+    private static void assertTaxed(Path file, int count) throws IOException {
+        assertEquals((long) count * Double.BYTES, Files.size(file));
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            for (int i = 0; i < count; i++) {
+                assertEquals(i * 0.25 * BatchAudit.TAX_RATE, in.readDouble(), 0.0, "Price " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.course.lab01.concurrency;
+
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MultiSkuInventoryTest {
+
+    private static final long SHIRT = 1001L;
+    private static final long SHOES = 1002L;
+    private static final long HAT = 1003L;
+
+    @Test
+    void testCart_IsAllOrNothing() {
+        MultiSkuInventory inventory = new MultiSkuInventory(3);
+        inventory.addStock(SHIRT, 5);
+        inventory.addStock(SHOES, 1);
+
+        // Shoes are short: the shirts must be put back.
+        assertFalse(inventory.tryReserve(Map.of(SHIRT, 2, SHOES, 2)));
+        assertEquals(5, inventory.getStock(SHIRT));
+        assertEquals(1, inventory.getStock(SHOES));
+
+        assertTrue(inventory.tryReserve(Map.of(SHIRT, 2, SHOES, 1)));
+        assertEquals(3, inventory.getStock(SHIRT));
+        assertEquals(0, inventory.getStock(SHOES));
+    }
+
+    @Test
+    void testCart_UnknownSkuFailsWithoutSideEffects() {
+        MultiSkuInventory inventory = new MultiSkuInventory(2);
+        inventory.addStock(SHIRT, 5);
+
+        assertFalse(inventory.tryReserve(Map.of(SHIRT, 1, HAT, 1)));
+        assertEquals(5, inventory.getStock(SHIRT));
+        assertEquals(0, inventory.getStock(HAT));
+    }
+
+    @Test
+    void testConcurrentCarts_NeverOversell() throws InterruptedException {
+        // Setup: 100 shirts, 50 pairs of shoes, 20 buyers each trying 10 carts
+        MultiSkuInventory inventory = new MultiSkuInventory(2);
+        inventory.addStock(SHIRT, 100);
+        inventory.addStock(SHOES, 50);
+        Map<Long, Integer> cart = Map.of(SHIRT, 2, SHOES, 1);
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService service = Executors.newFixedThreadPool(20);
+
+        for (int i = 0; i < 20; i++) {
+            service.submit(() -> {
+                for (int j = 0; j < 10; j++) {
+                    if (inventory.tryReserve(cart)) {
+                        reserved.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        service.shutdown();
+        service.awaitTermination(5, TimeUnit.SECONDS);
+
+        // Carts are rolled back when they lose a race, so the totals must still add up.
+        assertEquals(100, reserved.get() * 2 + inventory.getStock(SHIRT));
+        assertEquals(50, reserved.get() + inventory.getStock(SHOES));
+        assertTrue(inventory.getStock(SHIRT) >= 0 && inventory.getStock(SHOES) >= 0);
+    }
+}
@@ -0,0 +1,88 @@
+package com.course.lab01.concurrency;
+
+import org.junit.jupiter.api.Test;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class SalesMetricsTest {
+
+    @Test
+    void testMetrics_CountEverySellAttempt() throws InterruptedException {
+        // Setup: 500 Items, 20 Buyers trying 50 times each (1000 attempts)
+        InstrumentedSalesManager store = new InstrumentedSalesManager(500);
+        ExecutorService service = Executors.newFixedThreadPool(20);
+
+        for (int i = 0; i < 20; i++) {
+            service.submit(() -> {
+                for (int j = 0; j < 50; j++) {
+                    store.sellItemSafe();
+                }
+            });
+        }
+
+        service.shutdown();
+        service.awaitTermination(5, TimeUnit.SECONDS);
+
+        SalesMetrics.Snapshot snapshot = store.getMetrics().snapshot();
+        System.out.println("Metrics: " + snapshot);
+
+        assertEquals(0, store.getStock());
+        assertEquals(1000, snapshot.attempts());
+        assertEquals(500, snapshot.sold());
+        assertEquals(500, snapshot.soldOut());
+        assertEquals(1000, Arrays.stream(snapshot.retryHistogram()).sum(), "Every attempt lands in one bucket.");
+    }
+
+    @Test
+    void testSnapshot_IsImmutableAndComparedByValue() {
+        SalesMetrics metrics = new SalesMetrics();
+        metrics.recordSale(0);
+        metrics.recordSale(3);
+        SalesMetrics.Snapshot snapshot = metrics.snapshot();
+
+        snapshot.retryHistogram()[0] = 99;
+        assertEquals(1, snapshot.retryHistogram()[0], "The accessor must hand out a copy.");
+
+        long[] counts = {1, 0, 0, 1, 0, 0, 0, 0, 0};
+        SalesMetrics.Snapshot same = new SalesMetrics.Snapshot(2, 2, 0, 3, counts);
+        counts[0] = 99;
+        assertEquals(snapshot, same, "The constructor must keep its own copy.");
+        assertEquals(snapshot.hashCode(), same.hashCode());
+        assertNotEquals(snapshot, new SalesMetrics.Snapshot(2, 2, 0, 3, new long[] {2, 0, 0, 0, 0, 0, 0, 0, 0}));
+    }
+
+    @Test
+    void testBuckets_ArePowersOfTwo() {
+        assertEquals(0, SalesMetrics.bucket(0));
+        assertEquals(2, SalesMetrics.bucket(2));
+        assertEquals(3, SalesMetrics.bucket(4));
+        assertEquals(4, SalesMetrics.bucket(5));
+        assertEquals(4, SalesMetrics.bucket(8));
+        assertEquals(7, SalesMetrics.bucket(64));
+        assertEquals(8, SalesMetrics.bucket(1_000_000));
+    }
+
+    @Test
+    void testMetrics_AreReadableOverJmx() throws Exception {
+        InstrumentedSalesManager store = new InstrumentedSalesManager(1);
+        ObjectName name = store.getMetrics().register("jmx-test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            store.sellItemSafe();
+            store.sellItemSafe();
+
+            assertEquals(2L, server.getAttribute(name, "Attempts"));
+            assertEquals(1L, server.getAttribute(name, "Sold"));
+            assertEquals(1L, server.getAttribute(name, "SoldOut"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
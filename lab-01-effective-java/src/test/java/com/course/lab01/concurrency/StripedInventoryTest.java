@@ -0,0 +1,58 @@
+package com.course.lab01.concurrency;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StripedInventoryTest {
+
+    @Test
+    void testStriped_NeverOversells() throws InterruptedException {
+        // Setup: 1000 Items, 20 Buyers trying 100 times each (2000 attempts)
+        StripedInventory store = new StripedInventory(1000, 8);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService service = Executors.newFixedThreadPool(20);
+
+        for (int i = 0; i < 20; i++) {
+            service.submit(() -> {
+                for (int j = 0; j < 100; j++) {
+                    if (store.sellItem()) {
+                        sold.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        service.shutdown();
+        service.awaitTermination(5, TimeUnit.SECONDS);
+
+        System.out.println("Striped Stock Remaining: " + store.getStock());
+        assertEquals(1000, sold.get(), "Every item should be sold exactly once.");
+        assertEquals(0, store.getStock(), "Stock should stop exactly at 0.");
+    }
+
+    @Test
+    void testStriped_SingleBuyerDrainsAllCells() {
+        // One thread only has one home cell, so it must rebalance to reach the rest.
+        StripedInventory store = new StripedInventory(10, 4);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(store.sellItem(), "Item " + i + " should still be available.");
+        }
+        assertFalse(store.sellItem(), "The 11th sale must be rejected.");
+        assertEquals(0, store.getStock());
+    }
+
+    @Test
+    void testStriped_RoundsStripesToPowerOfTwo() {
+        StripedInventory store = new StripedInventory(7, 3);
+
+        assertEquals(4, store.stripes());
+        assertEquals(7, store.getStock());
+    }
+}
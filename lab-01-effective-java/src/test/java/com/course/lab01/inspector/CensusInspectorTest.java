@@ -0,0 +1,87 @@
+package com.course.lab01.inspector;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CensusInspectorTest {
+
+    private final CensusInspector inspector = new CensusInspector();
+
+    @Test
+    void testCensus_CountsTypesNullsAndRanges() {
+        List<Object> data = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            data.add(i);
+        }
+        data.addAll(Arrays.asList("pear", "apple", null, null, new Object()));
+
+        CensusInspector.Census census = inspector.census(data);
+
+        assertEquals(100_005, census.scanned());
+        assertFalse(census.sampled());
+        assertEquals(2, census.nulls());
+        assertEquals(100_000, census.types().get(Integer.class).count());
+        assertEquals(0, census.types().get(Integer.class).min());
+        assertEquals(99_999, census.types().get(Integer.class).max());
+        assertEquals("apple", census.types().get(String.class).min());
+        assertEquals("pear", census.types().get(String.class).max());
+        assertNull(census.types().get(Object.class).min(), "Object is not Comparable.");
+    }
+
+    /** Comparable, but only against Integers: two Tickets cannot be compared. */
+    private record Ticket(int number) implements Comparable<Integer> {
+        @Override
+        public int compareTo(Integer other) {
+            return Integer.compare(number, other);
+        }
+    }
+
+    @Test
+    void testCensus_SkipsMinMaxForTypesThatCannotCompareThemselves() {
+        List<Object> data = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            data.add(new Ticket(i));
+            data.add(i);
+        }
+        data.add(new Ticket(-1));
+
+        CensusInspector.Census census = inspector.census(data);
+
+        assertEquals(10_001, census.types().get(Ticket.class).count());
+        assertNull(census.types().get(Ticket.class).min());
+        assertNull(census.types().get(Ticket.class).max());
+        assertEquals(9_999, census.types().get(Integer.class).max());
+        assertNull(inspector.census(List.of(new Ticket(7))).types().get(Ticket.class).min(),
+            "A single Ticket must not be reported as its own min.");
+    }
+
+    @Test
+    void testCensus_DoesNotModifyTheList() {
+        List<Integer> numbers = new ArrayList<>(List.of(3, 1, 2));
+
+        inspector.census(numbers);
+
+        assertEquals(List.of(3, 1, 2), numbers);
+    }
+
+    @Test
+    void testCensus_SamplesLargeInputs() {
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            numbers.add(i);
+        }
+
+        CensusInspector.Census census = inspector.census(numbers, 1_000);
+
+        assertTrue(census.sampled());
+        assertEquals(1_000, census.scanned());
+        assertEquals(1_000_000, census.total());
+        assertEquals(0, census.types().get(Integer.class).min());
+    }
+}
@@ -0,0 +1,56 @@
+package com.course.lab01.mover;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+
+class BulkMoverTest {
+
+    private final BulkMover mover = new BulkMover();
+
+    @Test
+    void testBulkMove_AcceptsProducerAndConsumerTypes() {
+        List<Integer> integers = List.of(1, 2, 3);
+        List<Number> numbers = new ArrayList<>();
+        numbers.add(0.5);
+
+        // Integer producer -> Number consumer (PECS), same as SecureMover Snippet B
+        mover.moveData(integers, numbers);
+
+        assertThat(numbers).containsExactly(0.5, 1, 2, 3);
+    }
+
+    @Test
+    void testBulkMove_WorksForNonRandomAccessSources() {
+        LinkedList<String> source = new LinkedList<>(List.of("a", "b"));
+        List<Object> destination = new LinkedList<>();
+
+        mover.moveData(source, destination);
+
+        assertThat(destination).containsExactly("a", "b");
+    }
+
+    @Test
+    void testPrimitiveLists_MoveWithoutBoxing() {
+        IntList source = new IntList(2);
+        source.addAll(new int[] {1, 2, 3, 4, 5});
+        IntList destination = new IntList();
+        destination.add(0);
+
+        source.moveTo(destination);
+
+        assertThat(source.size()).isZero();
+        assertThat(destination.toArray()).containsExactly(0, 1, 2, 3, 4, 5);
+
+        DoubleList prices = new DoubleList();
+        prices.addAll(new double[] {1.5, 2.5}, 1, 1);
+        assertThat(prices.toArray()).containsExactly(2.5);
+
+        LongList ids = new LongList();
+        ids.add(Long.MAX_VALUE);
+        assertThat(ids.get(0)).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> ids.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.course.lab01.pricing;
+
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PricingPipelineTest {
+
+    @Test
+    void testStandardPipeline_FusesIntoOneStep() {
+        PricingPipeline standard = PricingPipeline.builder().tax(1.20).discount(10.00).build();
+
+        assertEquals(1, standard.affineSteps(), "Tax then Discount is one multiply-add.");
+        assertEquals(110.00, standard.applyAsDouble(100.00), 0.001);
+    }
+
+    @Test
+    void testStandardPipeline_MatchesLegacyBitForBit() {
+        PricingPipeline standard = PricingPipeline.builder().tax(1.20).discount(10.00).build();
+        Random random = new Random(42);
+        double[] prices = new double[10_000];
+        double[] expected = new double[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = random.nextDouble() * 1_000;
+            expected[i] = LegacyPricing.calculate(prices[i]);
+        }
+
+        for (int i = 0; i < prices.length; i++) {
+            // delta 0.0 = exact equality
+            assertEquals(expected[i], standard.applyAsDouble(prices[i]), 0.0);
+        }
+        assertArrayEquals(expected, standard.apply(prices), 0.0);
+    }
+
+    @Test
+    void testVipPipeline_KeepsOperationOrder() {
+        // Discount BEFORE Tax cannot be folded into one step without changing the rounding.
+        PricingPipeline vip = PricingPipeline.builder().discount(10.00).tax(1.20).build();
+        Random random = new Random(7);
+
+        assertEquals(2, vip.affineSteps());
+        assertEquals(108.00, vip.applyAsDouble(100.00), 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            double price = random.nextDouble() * 1_000;
+            assertEquals((price - 10.00) * 1.20, vip.applyAsDouble(price), 0.0);
+        }
+    }
+
+    @Test
+    void testCustomRule_SplitsTheFusion() {
+        PricingPipeline rounded = PricingPipeline.builder()
+            .tax(1.20)
+            .then(price -> Math.round(price * 100) / 100.0)
+            .discount(10.00)
+            .build();
+
+        assertEquals(3, rounded.stages());
+        assertEquals(2, rounded.affineSteps());
+        assertEquals(Math.round(33.33 * 1.20 * 100) / 100.0 - 10.00, rounded.applyAsDouble(33.33), 0.0);
+    }
+}
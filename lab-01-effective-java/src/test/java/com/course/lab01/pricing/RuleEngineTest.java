@@ -0,0 +1,100 @@
+package com.course.lab01.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RuleEngineTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testSegments_HaveTheirOwnRuleOrder() throws IOException {
+        Path rules = write("""
+            STANDARD = tax:1.20, discount:10.00
+            VIP      = discount:10.00, tax:1.20
+            """);
+
+        try (PricingRuleEngine engine = PricingRuleEngine.load(rules)) {
+            // 100 -> 120 -> 110
+            assertEquals(LegacyPricing.calculate(100.00), engine.price("STANDARD", 100.00), 0.0);
+            // 100 -> 90 -> 108
+            assertEquals(108.00, engine.price("VIP", 100.00), 0.001);
+            // Compiled once, not per call
+            assertSame(engine.pipeline("VIP"), engine.pipeline("VIP"));
+            assertThrows(IllegalArgumentException.class, () -> engine.price("UNKNOWN", 1.0));
+        }
+    }
+
+    @Test
+    void testReload_SwapsTableAndKeepsOldOnError() throws IOException {
+        Path rules = write("VIP = discount:10.00, tax:1.20");
+
+        try (PricingRuleEngine engine = PricingRuleEngine.load(rules)) {
+            assertFalse(engine.reloadIfChanged(), "Nothing changed yet.");
+
+            rewrite(rules, "VIP = discount:20.00, tax:1.20", 10);
+            assertTrue(engine.reloadIfChanged());
+            assertEquals(96.00, engine.price("VIP", 100.00), 0.001);
+
+            // A broken file must not take pricing down
+            rewrite(rules, "VIP = discount:oops", 20);
+            assertThrows(IllegalArgumentException.class, engine::reload);
+            assertEquals(96.00, engine.price("VIP", 100.00), 0.001);
+        }
+    }
+
+    @Test
+    void testWatcher_ReportsABrokenFileOnce() throws IOException {
+        Path rules = write("VIP = discount:10.00, tax:1.20");
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream originalErr = System.err;
+
+        try (PricingRuleEngine engine = PricingRuleEngine.load(rules)) {
+            System.setErr(new PrintStream(errors, true));
+            rewrite(rules, "VIP = discount:oops", 10);
+            engine.checkForChanges();
+            engine.checkForChanges();
+            engine.checkForChanges();
+            assertEquals(1, errors.toString().lines().count(), "Same broken file: one report.");
+
+            rewrite(rules, "VIP = discount:20.00, tax:1.20", 20);
+            engine.checkForChanges();
+            assertEquals(96.00, engine.price("VIP", 100.00), 0.001);
+
+            rewrite(rules, "VIP = discount:oops", 30);
+            engine.checkForChanges();
+            assertEquals(2, errors.toString().lines().count(), "A new broken version is reported again.");
+        } finally {
+            System.setErr(originalErr);
+        }
+    }
+
+    @Test
+    void testLoad_RejectsABrokenFile() throws IOException {
+        Path rules = write("VIP = nonsense:1");
+        assertThrows(IllegalArgumentException.class, () -> PricingRuleEngine.load(rules));
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(dir.resolve("pricing-rules.properties"), content);
+    }
+
+    // Bump the timestamp explicitly: some file systems only have 1s resolution.
+    private static void rewrite(Path file, String content, int secondsLater) throws IOException {
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(secondsLater)));
+    }
+}
@@ -3,16 +3,27 @@ package com.course.lab02.loom;
 import java.time.Duration;
 
 public class BlockingTask implements Runnable {
+
+    private final Duration blockFor;
+
+    public BlockingTask() {
+        this(Duration.ofSeconds(1));
+    }
+
+    // A shorter (or longer) simulated call, e.g. for bulkhead runs in tests.
+    public BlockingTask(Duration blockFor) {
+        this.blockFor = blockFor;
+    }
     
     @Override
     public void run() {
         try {
-            // Simulate a blocking IO operation (e.g., DB call) taking 1 second.
+            // Simulate a blocking IO operation (e.g., DB call) taking 1 second by default.
             // In a real app, this blocks the OS thread, making it unusable for others.
-            Thread.sleep(Duration.ofSeconds(1));
+            Thread.sleep(blockFor);
         } catch (InterruptedException e) {
             // Restore interrupt status
             Thread.currentThread().interrupt();
         }
     }
-}
\ No newline at end of file
+}
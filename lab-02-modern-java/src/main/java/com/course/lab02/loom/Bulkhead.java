@@ -0,0 +1,146 @@
+package com.course.lab02.loom;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The "Bulkhead".
+ * * PROBLEM: A fixed pool of 100 platform threads caps concurrency by
+ * accident. With virtual threads there is no cap at all: 10,000 tasks all
+ * hit the database at once, and the database only has (say) 20 connections.
+ * * FIX: Keep one virtual thread per task, but guard the downstream
+ * resource with N permits:
+ * 1. FAIR semaphore: waiting tasks get a permit in arrival order.
+ * 2. Queue-wait timeout: a task that waited too long gives up instead of
+ *    calling a resource its caller has already given up on.
+ * 3. Load shedding: when too many tasks are already waiting, new ones are
+ *    rejected at once (a waiting line longer than the timeout allows is useless).
+ * * The counters (wait time, rejections, peak in use) are what you need to
+ * size the pool.
+ */
+public class Bulkhead {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWait = new AtomicLong();
+
+    /**
+     * @param permits   how many tasks may use the resource at once (e.g. DB connections)
+     * @param maxQueued how many tasks may wait for a permit before new ones are shed
+     * @param maxWait   how long one task may wait for a permit
+     */
+    public Bulkhead(int permits, int maxQueued, Duration maxWait) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits must be >= 1");
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("maxQueued must be >= 0");
+        }
+        this.permits = new Semaphore(permits, true);
+        this.maxPermits = permits;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * Runs the task while holding a permit.
+     *
+     * @return false if the task was rejected (shed or timed out) and did not run
+     */
+    public boolean run(Runnable task) throws InterruptedException {
+        long start = System.nanoTime();
+        // tryAcquire(0, ...) honours fairness; plain tryAcquire() would barge past waiters.
+        if (!permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                shed.increment();
+                return false;
+            }
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } finally {
+                queued.decrementAndGet();
+            }
+            recordWait(System.nanoTime() - start);
+            if (!acquired) {
+                timedOut.increment();
+                return false;
+            }
+        } else {
+            recordWait(System.nanoTime() - start);
+        }
+
+        int using = inUse.incrementAndGet();
+        if (using > peakInUse.get()) {
+            peakInUse.accumulateAndGet(using, Math::max);
+        }
+        try {
+            task.run();
+            completed.increment();
+            return true;
+        } finally {
+            inUse.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private void recordWait(long nanos) {
+        waitNanos.add(nanos);
+        if (nanos > maxWait.get()) {
+            maxWait.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    public int getPermits() {
+        return maxPermits;
+    }
+
+    /** Tasks waiting for a permit right now. */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /** Most permits ever held at the same time (never above getPermits()). */
+    public int getPeakInUse() {
+        return peakInUse.get();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /** Rejected at once because the waiting line was full. */
+    public long getShed() {
+        return shed.sum();
+    }
+
+    /** Rejected after waiting the full timeout. */
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    /** Total time tasks spent waiting for a permit (including the ones that timed out). */
+    public Duration getTotalWait() {
+        return Duration.ofNanos(waitNanos.sum());
+    }
+
+    public Duration getMaxWait() {
+        return Duration.ofNanos(maxWait.get());
+    }
+}
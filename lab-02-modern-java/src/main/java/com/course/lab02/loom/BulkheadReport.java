@@ -0,0 +1,27 @@
+package com.course.lab02.loom;
+
+/**
+ * Result of LoomSimulation.runBulkhead: what a pool of 'permits' did with 'tasks'.
+ *
+ * @param throughputPerSecond completed tasks per second of wall-clock time
+ * @param meanQueueWaitMillis average wait for a permit, over the completed and timed-out
+ *                            tasks; one that got a permit at once counts with a wait of ~0
+ */
+public record BulkheadReport(int tasks, int permits, long completed, long shed, long timedOut,
+                             int peakInUse, long elapsedMillis, double throughputPerSecond,
+                             double meanQueueWaitMillis, long maxQueueWaitMillis) {
+
+    public long rejected() {
+        return shed + timedOut;
+    }
+
+    static BulkheadReport of(int tasks, Bulkhead bulkhead, long elapsedMillis) {
+        long completed = bulkhead.getCompleted();
+        long waited = completed + bulkhead.getTimedOut();
+        double meanWait = waited == 0 ? 0.0 : bulkhead.getTotalWait().toNanos() / 1e6 / waited;
+        double throughput = elapsedMillis == 0 ? completed : completed * 1000.0 / elapsedMillis;
+        return new BulkheadReport(tasks, bulkhead.getPermits(), completed, bulkhead.getShed(),
+            bulkhead.getTimedOut(), bulkhead.getPeakInUse(), elapsedMillis, throughput,
+            meanWait, bulkhead.getMaxWait().toMillis());
+    }
+}
@@ -0,0 +1,116 @@
+package com.course.lab02.loom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An "HDR-style" Latency Histogram (nanoseconds).
+ * * PROBLEM: An average (or one total duration) hides the tail. Keeping
+ * every sample to sort later costs memory per task.
+ * * FIX: Log-linear buckets, like HdrHistogram:
+ * - values below 128 get their own bucket;
+ * - above that, each power of two is split into 64 linear sub-buckets.
+ * So every recorded value is off by less than 1/64 (~1.6%), from
+ * nanoseconds up to hours, in a fixed array of ~3,800 counters.
+ * * Recording is one atomic increment, safe from any number of threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;               // 128 values before the first shift
+    private static final int HALF = 1 << (SUB_BUCKET_BITS - 1);  // 64 sub-buckets per power of two
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * HALF + HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        total.increment();
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Coordinated-omission correction for closed-loop (fixed concurrency) runs.
+     * * A worker stuck for 1s on one call did not send the 99 calls it would
+     * have sent at one per 10ms. Those calls would have waited too, so we add
+     * them back: value - interval, value - 2 * interval, ... (as HdrHistogram does).
+     *
+     * @param expectedIntervalNanos the normal time between two calls of one worker
+     */
+    public void recordCorrected(long nanos, long expectedIntervalNanos) {
+        record(nanos);
+        if (expectedIntervalNanos <= 0) {
+            return;
+        }
+        for (long missing = nanos - expectedIntervalNanos; missing >= expectedIntervalNanos; missing -= expectedIntervalNanos) {
+            record(missing);
+        }
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile 0 - 100, e.g. 99.9
+     * @return the value at that percentile (upper edge of its bucket, capped at max), 0 if empty
+     */
+    public long valueAt(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max());
+            }
+        }
+        return max();
+    }
+
+    public double valueAtMillis(double percentile) {
+        return valueAt(percentile) / 1e6;
+    }
+
+    /** Adds every sample of 'other' into this histogram. */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long n = other.counts.get(i);
+            if (n != 0) {
+                counts.addAndGet(i, n);
+                total.add(n);
+            }
+        }
+        max.accumulateAndGet(other.max(), Math::max);
+    }
+
+    static int indexOf(long value) {
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        if (shift == 0) {
+            return (int) value;
+        }
+        // value >>> shift is in [64, 128): the top 7 bits of the value.
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    static long highestValueIn(int index) {
+        if (index < 2 * HALF) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        long subBucket = index - (long) shift * HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
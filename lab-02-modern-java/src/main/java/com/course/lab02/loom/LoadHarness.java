@@ -0,0 +1,246 @@
+package com.course.lab02.loom;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * The "Load Harness".
+ * * PROBLEM: LoomSimulation submits 1,000 sleeps at once and reports one
+ * total duration. Real services get a steady stream of requests, and what
+ * users feel is the tail (p99), not the batch time.
+ * * FIX: Drive the workload like real traffic and record every request in
+ * a LatencyHistogram:
+ * 1. FIXED RATE (open model): request i is DUE at start + i / rate. Its
+ *    latency is measured from when it was due, not from when it finally
+ *    got a thread. Otherwise a stalled executor hides its own queueing
+ *    ("coordinated omission").
+ * 2. FIXED CONCURRENCY (closed model): N callers loop back to back. A slow
+ *    call delays the caller's next ones, so those are added back with
+ *    LatencyHistogram.recordCorrected().
+ * * Each run reports throughput and p50/p99/p99.9, and writes CSV rows
+ * that can be plotted as throughput/latency curves.
+ */
+public final class LoadHarness {
+
+    /**
+     * PLATFORM: a fixed pool of platform threads (like runPlatform).
+     * VIRTUAL: one virtual thread per request.
+     * STRUCTURED: one virtual thread per request, each request runs inside
+     * its own scope that forks the call and joins it before the request
+     * completes (see runInScope).
+     */
+    public enum ExecutorKind { PLATFORM, VIRTUAL, STRUCTURED }
+
+    public enum Mode { FIXED_RATE, FIXED_CONCURRENCY }
+
+    /**
+     * @param load requests per second (FIXED_RATE) or callers (FIXED_CONCURRENCY)
+     */
+    public record Result(ExecutorKind executor, Mode mode, double load, long completed, long errors,
+                         double throughputPerSecond, LatencyHistogram latency) {
+
+        public double p50Millis() {
+            return latency.valueAtMillis(50);
+        }
+
+        public double p99Millis() {
+            return latency.valueAtMillis(99);
+        }
+
+        public double p999Millis() {
+            return latency.valueAtMillis(99.9);
+        }
+
+        public String toCsv() {
+            return String.format(Locale.ROOT, "%s,%s,%.1f,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f",
+                executor, mode, load, completed, errors, throughputPerSecond,
+                p50Millis(), p99Millis(), p999Millis(), latency.max() / 1e6);
+        }
+    }
+
+    public static final String CSV_HEADER =
+        "executor,mode,load,completed,errors,throughput_per_s,p50_ms,p99_ms,p999_ms,max_ms";
+
+    private LoadHarness() {
+    }
+
+    /**
+     * Starts requests at a fixed rate for 'duration', then waits for all of them.
+     *
+     * @param platformThreads pool size for ExecutorKind.PLATFORM (ignored otherwise)
+     */
+    public static Result fixedRate(ExecutorKind kind, int platformThreads, double ratePerSecond,
+                                   Duration duration, Supplier<? extends Runnable> workload) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be > 0");
+        }
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicLong lastDone = new AtomicLong();
+
+        long requests = Math.max(1, (long) (ratePerSecond * duration.toNanos() / 1e9));
+        double periodNanos = 1e9 / ratePerSecond;
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = executorFor(kind, platformThreads)) {
+            for (long i = 0; i < requests; i++) {
+                long due = start + (long) (i * periodNanos);
+                // Arrivals follow the clock, never the executor: no waiting for a free thread here.
+                for (long now = System.nanoTime(); now < due; now = System.nanoTime()) {
+                    LockSupport.parkNanos(due - now);
+                }
+                Runnable task = workload.get();
+                executor.execute(() -> {
+                    try {
+                        runRequest(kind, task);
+                        completed.increment();
+                    } catch (RuntimeException e) {
+                        errors.increment();
+                    }
+                    long done = System.nanoTime();
+                    latency.record(done - due);
+                    lastDone.accumulateAndGet(done, Math::max);
+                });
+            }
+        }
+        return result(kind, Mode.FIXED_RATE, ratePerSecond, latency, completed, errors, lastDone.get() - start);
+    }
+
+    /**
+     * Runs 'concurrency' callers back to back for 'duration'.
+     *
+     * @param expectedInterval the usual time of one call, used for the
+     *                         coordinated-omission correction (Duration.ZERO = off)
+     */
+    public static Result fixedConcurrency(ExecutorKind kind, int concurrency, Duration duration,
+                                          Duration expectedInterval, Supplier<? extends Runnable> workload) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be >= 1");
+        }
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long interval = expectedInterval.toNanos();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        // For PLATFORM the callers ARE the pool's threads.
+        try (ExecutorService executor = executorFor(kind, concurrency)) {
+            for (int c = 0; c < concurrency; c++) {
+                executor.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        try {
+                            runRequest(kind, workload.get());
+                            completed.increment();
+                        } catch (RuntimeException e) {
+                            errors.increment();
+                        }
+                        latency.recordCorrected(System.nanoTime() - begin, interval);
+                    }
+                });
+            }
+        }
+        return result(kind, Mode.FIXED_CONCURRENCY, concurrency, latency, completed, errors, System.nanoTime() - start);
+    }
+
+    // Counted apart from the histogram: corrected samples are not real requests.
+    private static Result result(ExecutorKind kind, Mode mode, double load, LatencyHistogram latency,
+                                 LongAdder completed, LongAdder errors, long elapsedNanos) {
+        long done = completed.sum();
+        double throughput = elapsedNanos <= 0 ? 0 : done * 1e9 / elapsedNanos;
+        return new Result(kind, mode, load, done, errors.sum(), throughput, latency);
+    }
+
+    private static ExecutorService executorFor(ExecutorKind kind, int platformThreads) {
+        return switch (kind) {
+            case PLATFORM -> Executors.newFixedThreadPool(platformThreads);
+            case VIRTUAL, STRUCTURED -> Executors.newVirtualThreadPerTaskExecutor();
+        };
+    }
+
+    private static void runRequest(ExecutorKind kind, Runnable task) {
+        if (kind == ExecutorKind.STRUCTURED) {
+            runInScope(task);
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * A structured-concurrency scope on plain Java 21 APIs.
+     * * StructuredTaskScope is still a preview API in Java 21, and this
+     * course builds without --enable-preview. A try-with-resources virtual
+     * thread executor gives the same shape: the subtask is forked inside
+     * the block, the block cannot end before it does, and a failure is
+     * rethrown to the owner. Swap in StructuredTaskScope.ShutdownOnFailure
+     * once it is final.
+     */
+    static void runInScope(Runnable task) {
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> subtask = scope.submit(task);
+            subtask.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while joining the scope", e);
+        }
+    }
+
+    public static void writeCsv(List<Result> results, Path file) {
+        List<String> lines = new ArrayList<>();
+        lines.add(CSV_HEADER);
+        for (Result result : results) {
+            lines.add(result.toCsv());
+        }
+        try {
+            Files.write(file, lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    /**
+     * Sweeps arrival rates for every executor with 50ms BlockingTasks and
+     * prints the CSV (or writes it to args[0]).
+     * Platform: 100 threads can serve at most 2,000 req/s of 50ms calls;
+     * past that its p99 climbs while the virtual executors keep up.
+     */
+    public static void main(String[] args) {
+        Duration call = Duration.ofMillis(50);
+        Duration runFor = Duration.ofSeconds(3);
+        List<Result> results = new ArrayList<>();
+
+        for (ExecutorKind kind : ExecutorKind.values()) {
+            for (double rate : new double[] {500, 1_000, 2_000, 4_000}) {
+                results.add(fixedRate(kind, 100, rate, runFor, () -> new BlockingTask(call)));
+            }
+            for (int callers : new int[] {10, 100, 1_000}) {
+                results.add(fixedConcurrency(kind, callers, runFor, call, () -> new BlockingTask(call)));
+            }
+        }
+
+        if (args.length > 0) {
+            writeCsv(results, Path.of(args[0]));
+        } else {
+            System.out.println(CSV_HEADER);
+            results.forEach(result -> System.out.println(result.toCsv()));
+        }
+    }
+}
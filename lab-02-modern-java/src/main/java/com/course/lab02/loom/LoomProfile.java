@@ -0,0 +1,67 @@
+package com.course.lab02.loom;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * What LoomProfiler saw in one JFR recording.
+ *
+ * @param carriers            carrier threads of the virtual-thread scheduler
+ * @param pinnedCarrierShare  share of total carrier time spent pinned (0.0 - 1.0)
+ * @param carrierCpuLoad      average CPU load of the carrier threads, NaN if JFR took no sample
+ * @param threadLifetime      start-to-end time of the virtual threads (queueing + running + blocking)
+ */
+public record LoomProfile(Duration elapsed, int carriers,
+                          long virtualThreadsStarted, long virtualThreadsEnded, long submitFailed,
+                          long pinnedEvents, Duration pinnedTotal, List<PinnedStack> pinnedStacks,
+                          double pinnedCarrierShare, double carrierCpuLoad,
+                          Percentiles pinnedDuration, Percentiles threadLifetime) {
+
+    /** One place where virtual threads were pinned, with how often and for how long. */
+    public record PinnedStack(String stack, long count, Duration total) {}
+
+    /** Nearest-rank percentiles, in milliseconds. */
+    public record Percentiles(long samples, double p50, double p90, double p99, double max) {
+
+        static final Percentiles EMPTY = new Percentiles(0, 0, 0, 0, 0);
+
+        static Percentiles of(long[] nanos) {
+            if (nanos.length == 0) {
+                return EMPTY;
+            }
+            long[] sorted = nanos.clone();
+            Arrays.sort(sorted);
+            return new Percentiles(sorted.length, rank(sorted, 0.50), rank(sorted, 0.90),
+                rank(sorted, 0.99), sorted[sorted.length - 1] / 1e6);
+        }
+
+        private static double rank(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms", samples, p50, p90, p99, max);
+        }
+    }
+
+    public String summary() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Run time:          %d ms on %d carriers%n", elapsed.toMillis(), carriers));
+        out.append(String.format("Virtual threads:   %d started, %d ended, %d submit failures%n",
+            virtualThreadsStarted, virtualThreadsEnded, submitFailed));
+        out.append(String.format("Thread lifetime:   %s%n", threadLifetime));
+        out.append(String.format("Pinned:            %d events, %d ms total, %.1f%% of carrier time%n",
+            pinnedEvents, pinnedTotal.toMillis(), pinnedCarrierShare * 100));
+        out.append(String.format("Pinned duration:   %s%n", pinnedDuration));
+        out.append(Double.isNaN(carrierCpuLoad)
+            ? String.format("Carrier CPU load:  (no samples)%n")
+            : String.format("Carrier CPU load:  %.1f%%%n", carrierCpuLoad * 100));
+        for (PinnedStack stack : pinnedStacks) {
+            out.append(String.format("  %6d x %6d ms  %s%n", stack.count(), stack.total().toMillis(), stack.stack()));
+        }
+        return out.toString();
+    }
+}
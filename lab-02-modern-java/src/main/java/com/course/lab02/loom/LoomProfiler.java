@@ -0,0 +1,197 @@
+package com.course.lab02.loom;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The "Flight Recorder" for Loom runs.
+ * * PROBLEM: LoomTest only asserts on elapsed milliseconds. When a virtual
+ * thread run is slow, that number cannot say WHY: pinned carriers, a
+ * saturated scheduler, or just slow tasks.
+ * * FIX: Record the run with JDK Flight Recorder and read the events back:
+ * - jdk.VirtualThreadPinned (threshold 0, with stack): who pinned a carrier, and for how long
+ * - jdk.VirtualThreadSubmitFailed: the scheduler refused a virtual thread
+ * - jdk.VirtualThreadStart / End: how long each virtual thread lived
+ * - jdk.ThreadCPULoad: how busy the carrier threads were
+ *
+ * <pre>
+ * LoomProfile profile = LoomProfiler.record(() -> sim.runBulkhead(1_000, bulkhead, Duration.ofMillis(10)));
+ * System.out.println(profile.summary());
+ * </pre>
+ */
+public final class LoomProfiler {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED = "jdk.VirtualThreadSubmitFailed";
+    private static final String VT_START = "jdk.VirtualThreadStart";
+    private static final String VT_END = "jdk.VirtualThreadEnd";
+    private static final String CPU_LOAD = "jdk.ThreadCPULoad";
+
+    // Frames of the JDK's own parking machinery say nothing about the caller.
+    private static final int STACK_FRAMES = 4;
+
+    private LoomProfiler() {
+    }
+
+    /** Records 'workload' with JFR and summarises what happened. */
+    public static LoomProfile record(Runnable workload) {
+        return record(workload, null);
+    }
+
+    /**
+     * Same as record(workload), but also keeps the .jfr file (open it in JDK Mission Control).
+     *
+     * @param keepAs where to write the recording, or null to throw it away
+     */
+    public static LoomProfile record(Runnable workload, Path keepAs) {
+        try (Recording recording = new Recording()) {
+            recording.setName("loom-profile");
+            recording.enable(PINNED).withThreshold(Duration.ZERO).withStackTrace();
+            recording.enable(SUBMIT_FAILED).withStackTrace();
+            recording.enable(VT_START);
+            recording.enable(VT_END);
+            recording.enable(CPU_LOAD).withPeriod(Duration.ofMillis(100));
+
+            recording.start();
+            Instant start = Instant.now();
+            workload.run();
+            Duration elapsed = Duration.between(start, Instant.now());
+            recording.stop();
+
+            Path file = keepAs != null ? keepAs : Files.createTempFile("loom-", ".jfr");
+            try {
+                recording.dump(file);
+                return summarize(RecordingFile.readAllEvents(file), elapsed);
+            } finally {
+                if (keepAs == null) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write or read the JFR recording", e);
+        }
+    }
+
+    static LoomProfile summarize(List<RecordedEvent> events, Duration elapsed) {
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+            Runtime.getRuntime().availableProcessors());
+
+        Map<String, long[]> pinnedByStack = new HashMap<>(); // stack -> {count, nanos}
+        List<Long> pinnedNanos = new ArrayList<>();
+        Map<Long, Instant> started = new HashMap<>();
+        List<Long> lifetimes = new ArrayList<>();
+        long startedCount = 0;
+        long endedCount = 0;
+        long submitFailed = 0;
+        double loadSum = 0;
+        int loadSamples = 0;
+
+        for (RecordedEvent event : events) {
+            switch (event.getEventType().getName()) {
+                case PINNED -> {
+                    long nanos = event.getDuration().toNanos();
+                    pinnedNanos.add(nanos);
+                    long[] totals = pinnedByStack.computeIfAbsent(describe(event.getStackTrace()), k -> new long[2]);
+                    totals[0]++;
+                    totals[1] += nanos;
+                }
+                case SUBMIT_FAILED -> submitFailed++;
+                case VT_START -> {
+                    startedCount++;
+                    started.put(event.getLong("javaThreadId"), event.getStartTime());
+                }
+                case VT_END -> {
+                    endedCount++;
+                    Instant begin = started.remove(event.getLong("javaThreadId"));
+                    if (begin != null) {
+                        lifetimes.add(Duration.between(begin, event.getStartTime()).toNanos());
+                    }
+                }
+                case CPU_LOAD -> {
+                    if (isCarrier(event.getThread())) {
+                        loadSum += event.getFloat("user") + event.getFloat("system");
+                        loadSamples++;
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        List<LoomProfile.PinnedStack> stacks = new ArrayList<>();
+        pinnedByStack.forEach((stack, totals) ->
+            stacks.add(new LoomProfile.PinnedStack(stack, totals[0], Duration.ofNanos(totals[1]))));
+        stacks.sort(Comparator.comparing(LoomProfile.PinnedStack::total).reversed());
+
+        long pinnedTotal = pinnedNanos.stream().mapToLong(Long::longValue).sum();
+        long carrierNanos = Math.max(1, elapsed.toNanos() * carriers);
+
+        return new LoomProfile(elapsed, carriers, startedCount, endedCount, submitFailed,
+            pinnedNanos.size(), Duration.ofNanos(pinnedTotal), List.copyOf(stacks),
+            Math.min(1.0, (double) pinnedTotal / carrierNanos),
+            loadSamples == 0 ? Double.NaN : loadSum / loadSamples,
+            LoomProfile.Percentiles.of(toArray(pinnedNanos)),
+            LoomProfile.Percentiles.of(toArray(lifetimes)));
+    }
+
+    // The default scheduler is a ForkJoinPool; its workers are the carriers.
+    private static boolean isCarrier(RecordedThread thread) {
+        return thread != null && thread.getJavaName() != null
+            && thread.getJavaName().startsWith("ForkJoinPool-") && thread.getJavaName().contains("-worker-");
+    }
+
+    /**
+     * "Thread.sleep <- PinningTask.run:27 <- ..." starting at the first frame
+     * outside java.lang.VirtualThread and jdk.internal, i.e. the blocking call.
+     */
+    private static String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "(no stack)";
+        }
+        List<String> frames = new ArrayList<>();
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (frames.isEmpty() && (type.equals("java.lang.VirtualThread") || type.startsWith("jdk.internal."))) {
+                continue;
+            }
+            String name = type.substring(type.lastIndexOf('.') + 1) + "." + frame.getMethod().getName();
+            frames.add(frame.getLineNumber() > 0 ? name + ":" + frame.getLineNumber() : name);
+            if (frames.size() == STACK_FRAMES) {
+                break;
+            }
+        }
+        return String.join(" <- ", frames);
+    }
+
+    private static long[] toArray(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /** Profiles a pinning run and a non-pinning run side by side. */
+    public static void main(String[] args) {
+        LoomSimulation sim = new LoomSimulation();
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        Duration blockFor = Duration.ofMillis(20);
+
+        System.out.println("=== BlockingTask (sleep, no lock) ===");
+        System.out.println(sim.runVirtualProfiled(tasks, () -> new BlockingTask(blockFor)).summary());
+
+        System.out.println("=== PinningTask (sleep inside synchronized) ===");
+        System.out.println(sim.runVirtualProfiled(tasks, () -> new PinningTask(blockFor)).summary());
+    }
+}
@@ -3,6 +3,7 @@ package com.course.lab02.loom;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
 public class LoomSimulation {
@@ -27,4 +28,36 @@ public class LoomSimulation {
         // <--- PASTE/TYPE CODE HERE
         return 0;
     }
-}
\ No newline at end of file
+
+    // BULKHEAD: One virtual thread per task, but only 'permits' tasks may use
+    // the downstream resource (e.g. a DB connection pool) at the same time.
+    public BulkheadReport runBulkhead(int taskCount, Bulkhead bulkhead, Duration taskTime) {
+        var start = Instant.now();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            IntStream.range(0, taskCount).forEach(i ->
+                executor.submit(() -> {
+                    try {
+                        bulkhead.run(new BlockingTask(taskTime));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+            );
+        }
+
+        return BulkheadReport.of(taskCount, bulkhead, Duration.between(start, Instant.now()).toMillis());
+    }
+
+    // PROFILED: One virtual thread per task, recorded with JFR so pinning
+    // and carrier saturation show up (see LoomProfiler).
+    public LoomProfile runVirtualProfiled(int taskCount, Supplier<? extends Runnable> task) {
+        return LoomProfiler.record(() -> {
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                IntStream.range(0, taskCount).forEach(i ->
+                    executor.submit(task.get())
+                );
+            }
+        });
+    }
+}
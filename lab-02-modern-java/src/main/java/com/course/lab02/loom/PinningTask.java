@@ -0,0 +1,34 @@
+package com.course.lab02.loom;
+
+import java.time.Duration;
+
+/**
+ * A BlockingTask that blocks INSIDE a synchronized block.
+ * * On Java 21 a virtual thread cannot unmount while it holds a monitor,
+ * so this sleep "pins" its carrier thread: the carrier sits idle for the
+ * whole call instead of running other virtual threads.
+ * The fix is a ReentrantLock (or moving the blocking call out of the lock).
+ */
+public class PinningTask implements Runnable {
+
+    private final Duration blockFor;
+
+    public PinningTask() {
+        this(Duration.ofSeconds(1));
+    }
+
+    public PinningTask(Duration blockFor) {
+        this.blockFor = blockFor;
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            try {
+                Thread.sleep(blockFor);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.course.lab02.modern;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The "Compiled" JSON Codec for one class.
+ * * PROBLEM: Generic JSON libraries look fields up by reflection per object,
+ * and toJSON() by hand means one more method to keep in sync per class.
+ * * FIX: Inspect the class ONCE (cached per class in a ClassValue):
+ * - records: one MethodHandle per component accessor, plus the canonical
+ *   constructor for reading;
+ * - classes with getters (like LegacyTransaction): one MethodHandle per
+ *   getX()/isX() that matches a field, in field order (write only).
+ * Field names are pre-encoded as UTF-8 bytes ("id": and ,"amount":), so
+ * writing a row is: copy the name bytes, call the handle, write the value.
+ */
+public final class JsonCodec<T> {
+
+    private static final ClassValue<JsonCodec<?>> CODECS = new ClassValue<>() {
+        @Override
+        protected JsonCodec<?> computeValue(Class<?> type) {
+            return new JsonCodec<>(type);
+        }
+    };
+
+    private enum Kind { STRING, DOUBLE, FLOAT, LONG, INT, SHORT, BYTE, BOOLEAN, CHAR, OTHER }
+
+    private record Property(String name, Class<?> type, Kind kind, MethodHandle getter) {}
+
+    private final Class<T> type;
+    private final Property[] properties;
+    private final byte[][] names;        // "id" (for reading)
+    private final byte[][] prefixes;     // {"id":  and  ,"amount":  (for writing)
+    private final MethodHandle constructor; // (Object[]) -> Object, null if not a record
+
+    @SuppressWarnings("unchecked")
+    public static <T> JsonCodec<T> of(Class<T> type) {
+        return (JsonCodec<T>) CODECS.get(type);
+    }
+
+    private JsonCodec(Class<T> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            List<Property> found = type.isRecord() ? recordProperties(lookup) : getterProperties(lookup);
+            if (found.isEmpty() && !type.isRecord()) {
+                // Would silently come out as {}: not a type this codec understands.
+                throw new IllegalArgumentException("No JSON properties (record components or getters) in " + type.getName());
+            }
+            this.properties = found.toArray(Property[]::new);
+            this.constructor = type.isRecord() ? canonicalConstructor(lookup) : null;
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalArgumentException("Cannot build a JSON codec for " + type.getName()
+                + " (it must be public, or in a package open to this module)", e);
+        }
+        this.names = new byte[properties.length][];
+        this.prefixes = new byte[properties.length][];
+        for (int i = 0; i < properties.length; i++) {
+            names[i] = properties[i].name().getBytes(StandardCharsets.UTF_8);
+            String prefix = (i == 0 ? "{" : ",") + "\"" + properties[i].name() + "\":";
+            prefixes[i] = prefix.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private List<Property> recordProperties(MethodHandles.Lookup lookup) throws IllegalAccessException {
+        List<Property> found = new ArrayList<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            Method accessor = component.getAccessor();
+            accessor.setAccessible(true);
+            found.add(property(component.getName(), component.getType(), lookup.unreflect(accessor)));
+        }
+        return found;
+    }
+
+    private List<Property> getterProperties(MethodHandles.Lookup lookup) throws IllegalAccessException {
+        List<Property> found = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            String suffix = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+            Method getter = findGetter("get" + suffix, field.getType());
+            if (getter == null && (field.getType() == boolean.class || field.getType() == Boolean.class)) {
+                getter = findGetter("is" + suffix, field.getType());
+            }
+            if (getter != null) {
+                found.add(property(field.getName(), field.getType(), lookup.unreflect(getter)));
+            }
+        }
+        return found;
+    }
+
+    private Method findGetter(String name, Class<?> returnType) {
+        try {
+            Method method = type.getMethod(name);
+            return method.getReturnType() == returnType ? method : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private MethodHandle canonicalConstructor(MethodHandles.Lookup lookup)
+            throws NoSuchMethodException, IllegalAccessException {
+        Class<?>[] parameterTypes = new Class<?>[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            parameterTypes[i] = properties[i].type();
+        }
+        var ctor = type.getDeclaredConstructor(parameterTypes);
+        ctor.setAccessible(true);
+        return lookup.unreflectConstructor(ctor)
+            .asSpreader(Object[].class, parameterTypes.length)
+            .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    private static Property property(String name, Class<?> type, MethodHandle getter) {
+        Kind kind = kindOf(type);
+        // Fix the handle's type so invokeExact can call it with no boxing for primitives.
+        Class<?> returned = kind == Kind.OTHER ? Object.class : type;
+        return new Property(name, type, kind, getter.asType(MethodType.methodType(returned, Object.class)));
+    }
+
+    private static Kind kindOf(Class<?> type) {
+        if (type == String.class) return Kind.STRING;
+        if (type == double.class) return Kind.DOUBLE;
+        if (type == float.class) return Kind.FLOAT;
+        if (type == long.class) return Kind.LONG;
+        if (type == int.class) return Kind.INT;
+        if (type == short.class) return Kind.SHORT;
+        if (type == byte.class) return Kind.BYTE;
+        if (type == boolean.class) return Kind.BOOLEAN;
+        if (type == char.class) return Kind.CHAR;
+        return Kind.OTHER;
+    }
+
+    // --- Writing -----------------------------------------------------------------
+
+    public void write(T value, JsonWriter out) {
+        if (value == null) {
+            out.writeNull();
+            return;
+        }
+        if (properties.length == 0) {
+            out.writeByte('{');
+        }
+        try {
+            for (int i = 0; i < properties.length; i++) {
+                out.writeRaw(prefixes[i]);
+                writeProperty(properties[i], value, out);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Accessor failed on " + type.getName(), e);
+        }
+        out.writeByte('}');
+    }
+
+    private static void writeProperty(Property property, Object value, JsonWriter out) throws Throwable {
+        MethodHandle getter = property.getter();
+        switch (property.kind()) {
+            case STRING -> {
+                String s = (String) getter.invokeExact(value);
+                if (s == null) {
+                    out.writeNull();
+                } else {
+                    out.writeString(s);
+                }
+            }
+            case DOUBLE -> out.writeDouble((double) getter.invokeExact(value));
+            case FLOAT -> out.writeDouble((float) getter.invokeExact(value));
+            case LONG -> out.writeLong((long) getter.invokeExact(value));
+            case INT -> out.writeLong((int) getter.invokeExact(value));
+            case SHORT -> out.writeLong((short) getter.invokeExact(value));
+            case BYTE -> out.writeLong((byte) getter.invokeExact(value));
+            case BOOLEAN -> out.writeBoolean((boolean) getter.invokeExact(value));
+            case CHAR -> out.writeString(String.valueOf((char) getter.invokeExact(value)));
+            case OTHER -> out.write((Object) getter.invokeExact(value));
+        }
+    }
+
+    // --- Reading -----------------------------------------------------------------
+
+    /**
+     * Reads one object through the canonical constructor. Missing fields get
+     * null / 0 / false, unknown fields are skipped.
+     */
+    public T read(JsonReader in) {
+        if (constructor == null) {
+            throw new UnsupportedOperationException(
+                type.getName() + " is not a record: reading needs its canonical constructor");
+        }
+        if (in.readNull()) {
+            return null;
+        }
+        Object[] args = new Object[properties.length];
+        in.expect('{');
+        if (!in.consume('}')) {
+            do {
+                int index = in.readFieldName(names);
+                if (index < 0) {
+                    in.skipValue();
+                } else {
+                    args[index] = readProperty(properties[index], in);
+                }
+            } while (in.consume(','));
+            in.expect('}');
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] == null && properties[i].type().isPrimitive()) {
+                args[i] = defaultValue(properties[i].kind());
+            }
+        }
+        try {
+            return type.cast((Object) constructor.invokeExact(args));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Constructor failed for " + type.getName(), e);
+        }
+    }
+
+    private static Object readProperty(Property property, JsonReader in) {
+        Class<?> type = property.type();
+        return switch (property.kind()) {
+            case STRING -> in.readString();
+            case DOUBLE -> in.readDouble();
+            case FLOAT -> (float) in.readDouble();
+            case LONG -> in.readLong();
+            case INT -> (int) readIntegral(in, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case SHORT -> (short) readIntegral(in, Short.MIN_VALUE, Short.MAX_VALUE);
+            case BYTE -> (byte) readIntegral(in, Byte.MIN_VALUE, Byte.MAX_VALUE);
+            case BOOLEAN -> in.readBoolean();
+            case CHAR -> readChar(in);
+            case OTHER -> readBoxedOrObject(type, in);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readBoxedOrObject(Class<?> type, JsonReader in) {
+        if (in.readNull()) {
+            return null;
+        }
+        if (type == Double.class) return in.readDouble();
+        if (type == Float.class) return (float) in.readDouble();
+        if (type == Long.class) return in.readLong();
+        if (type == Integer.class) return (int) readIntegral(in, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (type == Short.class) return (short) readIntegral(in, Short.MIN_VALUE, Short.MAX_VALUE);
+        if (type == Byte.class) return (byte) readIntegral(in, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        if (type == Boolean.class) return in.readBoolean();
+        if (type == Character.class) return readChar(in);
+        if (type == BigDecimal.class) return in.readBigDecimal();
+        if (type == BigInteger.class) return in.readBigDecimal().toBigIntegerExact();
+        if (type.isEnum()) return Enum.valueOf((Class<? extends Enum>) type, in.readString());
+        return of(type).read(in);
+    }
+
+    /** A long that must fit the narrower field type: never wraps silently. */
+    private static long readIntegral(JsonReader in, long min, long max) {
+        long value = in.readLong();
+        if (value < min || value > max) {
+            throw in.error("Integer " + value + " out of range [" + min + ", " + max + "]");
+        }
+        return value;
+    }
+
+    private static char readChar(JsonReader in) {
+        String s = in.readString();
+        if (s == null || s.length() != 1) {
+            throw in.error("Expected a one-character string");
+        }
+        return s.charAt(0);
+    }
+
+    private static Object defaultValue(Kind kind) {
+        return switch (kind) {
+            case DOUBLE -> 0.0;
+            case FLOAT -> 0.0f;
+            case LONG -> 0L;
+            case INT -> 0;
+            case SHORT -> (short) 0;
+            case BYTE -> (byte) 0;
+            case BOOLEAN -> false;
+            case CHAR -> '\0';
+            case STRING, OTHER -> null;
+        };
+    }
+}
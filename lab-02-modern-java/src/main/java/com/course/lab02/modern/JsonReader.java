@@ -0,0 +1,358 @@
+package com.course.lab02.modern;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The "Streaming" JSON Reader: the other half of JsonWriter.
+ * * Reads straight from UTF-8 bytes. Field names are matched against the
+ * codec's pre-encoded names byte by byte, so no String is built for them;
+ * the only Strings created are the String values of the record itself.
+ * * Numbers with up to 15 significant digits (money, counts) are parsed
+ * without allocating, exactly as Double.parseDouble would.
+ */
+public final class JsonReader {
+
+    // 10^0 .. 10^22 are exact doubles.
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final byte[] data;
+    private final int end;
+    private int position;
+
+    public JsonReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public JsonReader(byte[] data, int from, int to) {
+        this.data = data;
+        this.position = from;
+        this.end = to;
+    }
+
+    /** Reads one object of the given (record) type. */
+    public <T> T read(Class<T> type) {
+        return JsonCodec.of(type).read(this);
+    }
+
+    /** True if another value follows (whitespace and NDJSON newlines are skipped). */
+    public boolean hasNext() {
+        skipWhitespace();
+        return position < end;
+    }
+
+    /** Reads every NDJSON row of 'type' from the bytes. */
+    public static <T> List<T> readAll(byte[] data, Class<T> type) {
+        JsonCodec<T> codec = JsonCodec.of(type);
+        JsonReader reader = new JsonReader(data);
+        List<T> rows = new ArrayList<>();
+        while (reader.hasNext()) {
+            rows.add(codec.read(reader));
+        }
+        return rows;
+    }
+
+    /** Reads every NDJSON row of 'type' from the stream (which is read to the end). */
+    public static <T> List<T> readAll(InputStream in, Class<T> type) {
+        try {
+            return readAll(in.readAllBytes(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read JSON", e);
+        }
+    }
+
+    // --- Tokens (used by JsonCodec) -------------------------------------------------
+
+    void skipWhitespace() {
+        while (position < end) {
+            byte b = data[position];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    /** Next non-whitespace byte, without consuming it (-1 at the end). */
+    int peek() {
+        skipWhitespace();
+        return position < end ? data[position] : -1;
+    }
+
+    void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        position++;
+    }
+
+    /** Consumes 'c' if it is next. */
+    boolean consume(char c) {
+        if (peek() == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads a field name and its ':' and returns the index of the matching
+     * name in 'names' (UTF-8 bytes), or -1 for an unknown field.
+     */
+    int readFieldName(byte[][] names) {
+        expect('"');
+        int start = position;
+        boolean escaped = false;
+        while (position < end && data[position] != '"') {
+            if (data[position] == '\\') {
+                escaped = true;
+                position++;
+            }
+            position++;
+        }
+        if (position >= end) {
+            throw error("Unterminated field name");
+        }
+        int stop = position++;
+        expect(':');
+
+        if (escaped) {
+            // Rare: compare the decoded name instead.
+            String name = decodeString(start, stop);
+            for (int i = 0; i < names.length; i++) {
+                if (name.equals(new String(names[i], StandardCharsets.UTF_8))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (Arrays.equals(data, start, stop, names[i], 0, names[i].length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Reads a string value, or null for a JSON null. */
+    String readString() {
+        if (readNull()) {
+            return null;
+        }
+        expect('"');
+        int start = position;
+        boolean plain = true;
+        while (position < end && data[position] != '"') {
+            if (data[position] == '\\') {
+                plain = false;
+                position++;
+            }
+            position++;
+        }
+        if (position >= end) {
+            throw error("Unterminated string");
+        }
+        int stop = position++;
+        return plain ? new String(data, start, stop - start, StandardCharsets.UTF_8) : decodeString(start, stop);
+    }
+
+    private String decodeString(int start, int stop) {
+        StringBuilder out = new StringBuilder(stop - start);
+        int i = start;
+        while (i < stop) {
+            int runStart = i;
+            while (i < stop && data[i] != '\\') {
+                i++;
+            }
+            out.append(new String(data, runStart, i - runStart, StandardCharsets.UTF_8));
+            if (i == stop) {
+                break;
+            }
+            byte escape = data[i + 1];
+            i += 2;
+            switch (escape) {
+                case 'n' -> out.append('\n');
+                case 'r' -> out.append('\r');
+                case 't' -> out.append('\t');
+                case 'b' -> out.append('\b');
+                case 'f' -> out.append('\f');
+                case 'u' -> {
+                    out.append((char) Integer.parseInt(new String(data, i, 4, StandardCharsets.US_ASCII), 16));
+                    i += 4;
+                }
+                default -> out.append((char) escape); // \" \\ \/
+            }
+        }
+        return out.toString();
+    }
+
+    boolean readBoolean() {
+        if (matchLiteral("true")) {
+            return true;
+        }
+        if (matchLiteral("false")) {
+            return false;
+        }
+        throw error("Expected true or false");
+    }
+
+    /** Consumes a JSON null if it is next. */
+    boolean readNull() {
+        return peek() == 'n' && matchLiteral("null");
+    }
+
+    private boolean matchLiteral(String literal) {
+        skipWhitespace();
+        if (end - position < literal.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (data[position + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        position += literal.length();
+        return true;
+    }
+
+    /** Reads an integer exactly; a fraction or an exponent is an error, not truncated. */
+    long readLong() {
+        skipWhitespace();
+        int start = position;
+        boolean negative = consumeByte('-');
+        long value = 0;
+        int digits = 0;
+        while (position < end && data[position] >= '0' && data[position] <= '9') {
+            value = value * 10 + (data[position++] - '0'); // may wrap past 18 digits: redone below
+            digits++;
+        }
+        if (digits == 0) {
+            throw error("Expected an integer");
+        }
+        if (position < end && (data[position] == '.' || data[position] == 'e' || data[position] == 'E')) {
+            throw error("Expected an integer, not a fraction or exponent");
+        }
+        if (digits > 18) {
+            // 19+ digits can overflow a long: let parseLong decide exactly.
+            try {
+                return Long.parseLong(new String(data, start, position - start, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                throw error("Integer out of range for a long");
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    double readDouble() {
+        if (readNull()) {
+            return Double.NaN; // what JsonWriter writes for NaN / Infinity
+        }
+        int start = position;
+        boolean negative = consumeByte('-');
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        while (position < end && data[position] >= '0' && data[position] <= '9') {
+            mantissa = mantissa * 10 + (data[position++] - '0');
+            digits++;
+        }
+        if (consumeByte('.')) {
+            while (position < end && data[position] >= '0' && data[position] <= '9') {
+                mantissa = mantissa * 10 + (data[position++] - '0');
+                digits++;
+                fractionDigits++;
+            }
+        }
+        boolean exponent = position < end && (data[position] == 'e' || data[position] == 'E');
+        // Fast path: the mantissa and 10^k are both exact doubles, so one
+        // correctly rounded division gives the same answer as parseDouble.
+        if (digits > 0 && digits <= 15 && !exponent) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+        position = start;
+        return Double.parseDouble(numberText());
+    }
+
+    /** Reads a number exactly (no double in between), e.g. for money as BigDecimal. */
+    BigDecimal readBigDecimal() {
+        try {
+            return new BigDecimal(numberText());
+        } catch (NumberFormatException e) {
+            throw error("Malformed number");
+        }
+    }
+
+    private boolean consumeByte(char c) {
+        if (position < end && data[position] == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private String numberText() {
+        skipWhitespace();
+        int start = position;
+        while (position < end) {
+            byte b = data[position];
+            if ((b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+                position++;
+            } else {
+                break;
+            }
+        }
+        if (start == position) {
+            throw error("Expected a number");
+        }
+        return new String(data, start, position - start, StandardCharsets.US_ASCII);
+    }
+
+    /** Skips any value (used for fields the record does not have). */
+    void skipValue() {
+        int c = peek();
+        switch (c) {
+            case '"' -> readString();
+            case '{' -> skipContainer('{', '}');
+            case '[' -> skipContainer('[', ']');
+            case 't', 'f' -> readBoolean();
+            case 'n' -> {
+                if (!readNull()) {
+                    throw error("Expected null");
+                }
+            }
+            default -> numberText();
+        }
+    }
+
+    private void skipContainer(char open, char close) {
+        expect(open);
+        if (consume(close)) {
+            return;
+        }
+        do {
+            if (open == '{') {
+                readFieldName(new byte[0][]);
+            }
+            skipValue();
+        } while (consume(','));
+        expect(close);
+    }
+
+    IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at byte " + position);
+    }
+}
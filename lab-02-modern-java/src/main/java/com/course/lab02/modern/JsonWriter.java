@@ -0,0 +1,327 @@
+package com.course.lab02.modern;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The "Streaming" JSON Writer.
+ * * PROBLEM: LegacyTransaction.toJSON() glues ~10 Strings together per
+ * transaction, and then the caller encodes the result to bytes again.
+ * * FIX: Write UTF-8 bytes straight into ONE reusable byte[]. When the
+ * writer wraps an OutputStream, a full buffer is flushed to the stream, so
+ * millions of rows go out through the same few KB.
+ * * Objects are written by a JsonCodec for their class (built once per class).
+ * The output is compact: {"id":"TX-100","amount":50.0,"type":"DEBIT"}
+ *
+ * <pre>
+ * try (JsonWriter json = new JsonWriter(out, 64 * 1024)) {
+ *     for (var tx : transactions) {
+ *         json.write(tx).newLine();   // one JSON document per line (NDJSON)
+ *     }
+ * }
+ * </pre>
+ */
+public final class JsonWriter implements AutoCloseable {
+
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private byte[] buffer;
+    private int position;
+
+    /** In-memory writer: the buffer grows as needed. Reuse it with reset(). */
+    public JsonWriter(int initialCapacity) {
+        this.out = null;
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /** Streaming writer: a full buffer is written to 'out'. */
+    public JsonWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(16, bufferSize)];
+    }
+
+    /**
+     * Writes any value: String, number, boolean, enum, null, or a record / getter
+     * class via its JsonCodec. Arrays, collections and maps are not supported.
+     */
+    public JsonWriter write(Object value) {
+        if (value == null) {
+            writeRaw(NULL);
+        } else if (value instanceof String s) {
+            writeString(s);
+        } else if (value instanceof Double d) {
+            writeDouble(d);
+        } else if (value instanceof Float f) {
+            writeDouble(f);
+        } else if (value instanceof BigDecimal d) {
+            writeAsciiString(d.toString()); // exact: never through a double or a long
+        } else if (value instanceof BigInteger i) {
+            writeAsciiString(i.toString());
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte || value instanceof AtomicLong || value instanceof AtomicInteger) {
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof Number n) {
+            throw new IllegalArgumentException("Unsupported number type: " + n.getClass().getName());
+        } else if (value instanceof Boolean b) {
+            writeBoolean(b);
+        } else if (value instanceof Character c) {
+            writeString(String.valueOf(c));
+        } else if (value instanceof Enum<?> e) {
+            writeString(e.name());
+        } else if (value.getClass().isArray() || value instanceof Iterable<?> || value instanceof Map<?, ?>) {
+            throw new IllegalArgumentException("Unsupported JSON value type: " + value.getClass().getName());
+        } else {
+            writeObject(value);
+        }
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void writeObject(T value) {
+        JsonCodec.of((Class<T>) value.getClass()).write(value, this);
+    }
+
+    /** Ends an NDJSON line. */
+    public JsonWriter newLine() {
+        writeByte('\n');
+        return this;
+    }
+
+    // --- Primitives (used by JsonCodec) ----------------------------------------
+
+    void writeString(String s) {
+        int length = s.length();
+        // Room for the quotes plus the common all-ASCII case, checked once.
+        ensure(length + 2);
+        byte[] buf = buffer;
+        int pos = position;
+        buf[pos++] = '"';
+        int i = 0;
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x20 || c >= 0x80 || c == '"' || c == '\\') {
+                break;
+            }
+            buf[pos++] = (byte) c;
+        }
+        position = pos;
+        if (i < length) {
+            writeStringSlow(s, i);
+        }
+        writeByte('"');
+    }
+
+    // From the first character that needs escaping or more than one byte.
+    private void writeStringSlow(String s, int from) {
+        for (int i = from; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                writeByte(c);
+            } else {
+                writeEscapedOrEncoded(s, i, c);
+                if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    i++; // both halves were written as one code point
+                }
+            }
+        }
+    }
+
+    private void writeEscapedOrEncoded(String s, int i, char c) {
+        switch (c) {
+            case '"' -> writeAscii('\\', '"');
+            case '\\' -> writeAscii('\\', '\\');
+            case '\n' -> writeAscii('\\', 'n');
+            case '\r' -> writeAscii('\\', 'r');
+            case '\t' -> writeAscii('\\', 't');
+            default -> {
+                if (c < 0x20) {
+                    writeAscii('\\', 'u');
+                    writeAscii('0', '0');
+                    writeByte(HEX[c >> 4]);
+                    writeByte(HEX[c & 0xF]);
+                } else if (c < 0x800) {
+                    writeByte(0xC0 | (c >> 6));
+                    writeByte(0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, s.charAt(i + 1));
+                    writeByte(0xF0 | (codePoint >> 18));
+                    writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                    writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                    writeByte(0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    writeByte('?'); // a lone surrogate is not valid UTF-8 (String.getBytes does the same)
+                } else {
+                    writeByte(0xE0 | (c >> 12));
+                    writeByte(0x80 | ((c >> 6) & 0x3F));
+                    writeByte(0x80 | (c & 0x3F));
+                }
+            }
+        }
+    }
+
+    void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAsciiString(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        ensure(20);
+        // Digits are produced backwards, so write them from the end of their slot.
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    /**
+     * Same text as Double.toString. Money-like values (whole cents, below
+     * 10 million) are written digit by digit; anything else falls back to
+     * Double.toString.
+     */
+    void writeDouble(double value) {
+        long cents = Math.round(value * 100);
+        if (value <= 0 || value >= 1e7 || cents / 100.0 != value) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                writeRaw(NULL); // JSON has no NaN or Infinity
+            } else {
+                writeAsciiString(Double.toString(value));
+            }
+            return;
+        }
+        writeLong(cents / 100);
+        int fraction = (int) (cents % 100);
+        writeByte('.');
+        writeByte('0' + fraction / 10);
+        if (fraction % 10 != 0) {
+            writeByte('0' + fraction % 10);
+        }
+    }
+
+    void writeBoolean(boolean value) {
+        writeRaw(value ? TRUE : FALSE);
+    }
+
+    void writeNull() {
+        writeRaw(NULL);
+    }
+
+    void writeRaw(byte[] bytes) {
+        if (bytes.length > buffer.length - position) {
+            ensure(bytes.length);
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    void writeByte(int b) {
+        if (position == buffer.length) {
+            ensure(1);
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    private void writeAscii(char a, char b) {
+        writeByte(a);
+        writeByte(b);
+    }
+
+    private void writeAsciiString(String s) {
+        ensure(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buffer[position++] = (byte) s.charAt(i);
+        }
+    }
+
+    /** Makes room for 'bytes' more: flush to the stream, or grow the in-memory buffer. */
+    private void ensure(int bytes) {
+        if (buffer.length - position >= bytes) {
+            return;
+        }
+        if (out != null) {
+            flushBuffer();
+            if (buffer.length >= bytes) {
+                return;
+            }
+        }
+        byte[] bigger = new byte[Math.max(buffer.length * 2, position + bytes)];
+        System.arraycopy(buffer, 0, bigger, 0, position);
+        buffer = bigger;
+    }
+
+    private void flushBuffer() {
+        try {
+            out.write(buffer, 0, position);
+            position = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write JSON", e);
+        }
+    }
+
+    // --- In-memory access ---------------------------------------------------------
+
+    /** Bytes written so far (in-memory writer) or not yet flushed (streaming writer). */
+    public int size() {
+        return position;
+    }
+
+    /** The internal buffer; valid up to size(). No copy is made. */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /** Forgets the written bytes but keeps the buffer for the next batch. */
+    public void reset() {
+        position = 0;
+    }
+
+    public byte[] toByteArray() {
+        byte[] copy = new byte[position];
+        System.arraycopy(buffer, 0, copy, 0, position);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, position, StandardCharsets.UTF_8);
+    }
+
+    // --- Streaming ---------------------------------------------------------------
+
+    public void flush() {
+        if (out == null) {
+            return;
+        }
+        flushBuffer();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not flush JSON", e);
+        }
+    }
+
+    /** Flushes what is left. The OutputStream itself is NOT closed (the caller owns it). */
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,196 @@
+package com.course.lab02.modern;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoublePredicate;
+
+/**
+ * The "Memory-Mapped" Transaction Reader.
+ * * Maps the column files written by TransactionColumnWriter and answers
+ * aggregate queries straight from them: no JSON, no LegacyTransaction
+ * objects, no boxed doubles. A sum reads one 8-byte column in order,
+ * which is as fast as memory (or the page cache) can deliver it.
+ * * A filter by type compares one byte per row: the type name is turned
+ * into its dictionary code once, before the scan.
+ * * Each column must fit one mapping (2GB): about 268 million rows.
+ * The reader sees the rows that existed when it was opened.
+ */
+public class TransactionColumnReader {
+
+    private final DoubleBuffer amounts;
+    private final ByteBuffer types;
+    private final IntBuffer ids;
+    private final ByteBuffer idPool;
+    private final List<String> typeNames;
+    private final int rows;
+
+    public TransactionColumnReader(Path directory) {
+        try {
+            MappedByteBuffer amountColumn = map(directory.resolve(TransactionColumnWriter.AMOUNTS));
+            MappedByteBuffer typeColumn = map(directory.resolve(TransactionColumnWriter.TYPES));
+            MappedByteBuffer idColumn = map(directory.resolve(TransactionColumnWriter.IDS));
+            this.idPool = map(directory.resolve(TransactionColumnWriter.ID_POOL)).order(TransactionColumnWriter.ORDER);
+            Path dict = directory.resolve(TransactionColumnWriter.TYPE_DICT);
+            this.typeNames = Files.exists(dict) ? Files.readAllLines(dict, StandardCharsets.UTF_8) : List.of();
+
+            // Columns of a crashed writer may differ in length: only full rows count.
+            long committed = Math.min(amountColumn.capacity() / Double.BYTES,
+                Math.min(typeColumn.capacity(), idColumn.capacity() / Integer.BYTES));
+            this.rows = (int) committed;
+            this.amounts = amountColumn.order(TransactionColumnWriter.ORDER).asDoubleBuffer();
+            this.types = typeColumn;
+            this.ids = idColumn.order(TransactionColumnWriter.ORDER).asIntBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open transaction store " + directory, e);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException(file + " is larger than one 2GB mapping");
+            }
+            // The mapping stays valid after the channel is closed.
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    // --- Aggregates ----------------------------------------------------------------
+
+    /**
+     * Sum of every amount. Four independent running sums keep the CPU's
+     * floating-point units busy (a single sum waits on its own last add).
+     * The rounding can differ from a strict left-to-right sum in the last bits.
+     */
+    public double sum() {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = 0;
+        for (; i + 3 < rows; i += 4) {
+            s0 += amounts.get(i);
+            s1 += amounts.get(i + 1);
+            s2 += amounts.get(i + 2);
+            s3 += amounts.get(i + 3);
+        }
+        for (; i < rows; i++) {
+            s0 += amounts.get(i);
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /** Sum of the amounts of one type (0.0 if the type never occurs). */
+    public double sum(String type) {
+        int code = typeNames.indexOf(type);
+        if (code < 0) {
+            return 0.0;
+        }
+        byte wanted = (byte) code;
+        double sum = 0;
+        for (int i = 0; i < rows; i++) {
+            if (types.get(i) == wanted) {
+                sum += amounts.get(i);
+            }
+        }
+        return sum;
+    }
+
+    /** type -> sum of its amounts, in one pass over two columns. */
+    public Map<String, Double> sumByType() {
+        double[] sums = new double[typeNames.size()];
+        for (int i = 0; i < rows; i++) {
+            sums[types.get(i) & 0xFF] += amounts.get(i);
+        }
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int code = 0; code < sums.length; code++) {
+            result.put(typeNames.get(code), sums[code]);
+        }
+        return result;
+    }
+
+    /** type -> number of rows. */
+    public Map<String, Long> countByType() {
+        long[] counts = new long[typeNames.size()];
+        for (int i = 0; i < rows; i++) {
+            counts[types.get(i) & 0xFF]++;
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            result.put(typeNames.get(code), counts[code]);
+        }
+        return result;
+    }
+
+    /**
+     * Row numbers whose type is 'type' (null = any) and whose amount passes
+     * 'amountFilter'. Fetch fields of the matches with amount/type/id(row).
+     */
+    public int[] filter(String type, DoublePredicate amountFilter) {
+        int code = type == null ? -1 : typeNames.indexOf(type);
+        if (type != null && code < 0) {
+            return new int[0];
+        }
+        int[] matches = new int[16];
+        int found = 0;
+        for (int i = 0; i < rows; i++) {
+            if ((code < 0 || (types.get(i) & 0xFF) == code) && amountFilter.test(amounts.get(i))) {
+                if (found == matches.length) {
+                    matches = Arrays.copyOf(matches, found * 2);
+                }
+                matches[found++] = i;
+            }
+        }
+        return Arrays.copyOf(matches, found);
+    }
+
+    // --- Single rows ---------------------------------------------------------------
+
+    public double amount(int row) {
+        checkRow(row);
+        return amounts.get(row);
+    }
+
+    public String type(int row) {
+        checkRow(row);
+        return typeNames.get(types.get(row) & 0xFF);
+    }
+
+    /** Decodes the id (the only per-row String this reader ever builds). */
+    public String id(int row) {
+        checkRow(row);
+        int offset = ids.get(row);
+        int length = Short.toUnsignedInt(idPool.getShort(offset));
+        byte[] bytes = new byte[length];
+        idPool.get(offset + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Builds the full object for one row (for display, not for scans). */
+    public LegacyTransaction get(int row) {
+        return new LegacyTransaction(id(row), amount(row), type(row));
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.course.lab02.modern;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The "Columnar" Transaction Writer.
+ * * PROBLEM: Stored as JSON (or as objects), adding up all DEBITs means
+ * parsing every id, every amount and every type string of every row.
+ * * FIX: Store each field in its own file ("column"), fixed width where possible:
+ * - amounts.f64 : 8 bytes per row, little-endian double
+ * - types.u8    : 1 byte per row, a code into types.dict (at most 256 types)
+ * - ids.u32     : 4 bytes per row, the offset of the id in ids.str
+ * - ids.str     : every DISTINCT id once, as [length u16][UTF-8 bytes] ("interned")
+ * - types.dict  : one type name per line; line N is code N
+ * A query that only needs amounts and types reads 9 bytes per row and never
+ * touches the ids. TransactionColumnReader memory-maps the files.
+ * * Rows are buffered and appended on flush(). Dictionary entries are written
+ * BEFORE the rows that use them, so a crash never leaves a row pointing at
+ * a missing id or type (the reader uses the shortest column).
+ */
+public class TransactionColumnWriter implements AutoCloseable {
+
+    static final String AMOUNTS = "amounts.f64";
+    static final String TYPES = "types.u8";
+    static final String TYPE_DICT = "types.dict";
+    static final String IDS = "ids.u32";
+    static final String ID_POOL = "ids.str";
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final int DEFAULT_BUFFERED_ROWS = 64 * 1024;
+
+    private final Path directory;
+    private final FileChannel amounts;
+    private final FileChannel types;
+    private final FileChannel ids;
+    private final FileChannel idPool;
+
+    private final ByteBuffer amountBuffer;
+    private final ByteBuffer typeBuffer;
+    private final ByteBuffer idBuffer;
+    private final ByteBuffer poolBuffer = ByteBuffer.allocate(64 * 1024).order(ORDER);
+
+    private final List<String> typeNames = new ArrayList<>();
+    private final Map<String, Integer> typeCodes = new HashMap<>();
+    private final Map<String, Integer> idOffsets = new HashMap<>();
+    private long poolSize;
+    private boolean typesChanged;
+
+    public static TransactionColumnWriter open(Path directory) {
+        return new TransactionColumnWriter(directory, DEFAULT_BUFFERED_ROWS);
+    }
+
+    /**
+     * Opens (or creates) the store in 'directory'. Existing rows are kept and
+     * new rows are appended after them.
+     */
+    TransactionColumnWriter(Path directory, int bufferedRows) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            loadDictionaries();
+            this.amounts = append(AMOUNTS);
+            this.types = append(TYPES);
+            this.ids = append(IDS);
+            this.idPool = append(ID_POOL);
+            trimToCommittedRows();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open transaction store " + directory, e);
+        }
+        this.amountBuffer = ByteBuffer.allocate(bufferedRows * Double.BYTES).order(ORDER);
+        this.typeBuffer = ByteBuffer.allocate(bufferedRows);
+        this.idBuffer = ByteBuffer.allocate(bufferedRows * Integer.BYTES).order(ORDER);
+    }
+
+    private FileChannel append(String name) throws IOException {
+        return FileChannel.open(directory.resolve(name),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+    }
+
+    private void loadDictionaries() throws IOException {
+        Path dict = directory.resolve(TYPE_DICT);
+        if (Files.exists(dict)) {
+            for (String type : Files.readAllLines(dict, StandardCharsets.UTF_8)) {
+                typeCodes.put(type, typeNames.size());
+                typeNames.add(type);
+            }
+        }
+        Path pool = directory.resolve(ID_POOL);
+        if (Files.exists(pool)) {
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(pool)).order(ORDER);
+            while (bytes.remaining() >= Short.BYTES) {
+                int offset = bytes.position();
+                int length = Short.toUnsignedInt(bytes.getShort());
+                if (bytes.remaining() < length) {
+                    bytes.position(offset); // torn last entry: no committed row can point at it
+                    break;
+                }
+                idOffsets.put(new String(bytes.array(), bytes.position(), length, StandardCharsets.UTF_8), offset);
+                bytes.position(bytes.position() + length);
+            }
+            poolSize = bytes.position();
+        }
+    }
+
+    /** After a crash the columns may differ in length: cut them back to the shortest. */
+    private void trimToCommittedRows() throws IOException {
+        long rows = Math.min(amounts.size() / Double.BYTES, Math.min(types.size(), ids.size() / Integer.BYTES));
+        amounts.truncate(rows * Double.BYTES).position(rows * Double.BYTES);
+        types.truncate(rows).position(rows);
+        ids.truncate(rows * Integer.BYTES).position(rows * Integer.BYTES);
+        idPool.truncate(poolSize).position(poolSize);
+    }
+
+    public void append(LegacyTransaction tx) {
+        append(tx.getId(), tx.getAmount(), tx.getType());
+    }
+
+    public void append(String id, double amount, String type) {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(type, "type");
+        // Resolve both codes before touching any column: a rejected row must not
+        // leave an amount behind without its type and id.
+        int code = typeCode(type);
+        int offset = idOffset(id);
+        if (!amountBuffer.hasRemaining()) {
+            flush();
+        }
+        amountBuffer.putDouble(amount);
+        typeBuffer.put((byte) code);
+        idBuffer.putInt(offset);
+    }
+
+    private int typeCode(String type) {
+        Integer code = typeCodes.get(type);
+        if (code != null) {
+            return code;
+        }
+        if (typeNames.size() == 256) {
+            throw new IllegalStateException("More than 256 distinct transaction types");
+        }
+        if (type.indexOf('\n') >= 0 || type.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Type must not contain line breaks: " + type);
+        }
+        int newCode = typeNames.size();
+        typeNames.add(type);
+        typeCodes.put(type, newCode);
+        typesChanged = true;
+        return newCode;
+    }
+
+    private int idOffset(String id) {
+        Integer offset = idOffsets.get(id);
+        if (offset != null) {
+            return offset; // interned: the same id is stored once
+        }
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Id longer than 65535 bytes");
+        }
+        if (poolSize + Short.BYTES + bytes.length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Id pool is full (2GB)");
+        }
+        if (poolBuffer.remaining() < Short.BYTES + bytes.length) {
+            writePool();
+        }
+        int newOffset = (int) poolSize;
+        if (poolBuffer.remaining() < Short.BYTES + bytes.length) {
+            // Larger than the whole buffer: write it directly.
+            ByteBuffer big = ByteBuffer.allocate(Short.BYTES + bytes.length).order(ORDER);
+            big.putShort((short) bytes.length).put(bytes).flip();
+            writeFully(idPool, big);
+        } else {
+            poolBuffer.putShort((short) bytes.length).put(bytes);
+        }
+        poolSize += Short.BYTES + bytes.length;
+        idOffsets.put(id, newOffset);
+        return newOffset;
+    }
+
+    /** Writes the buffered rows (dictionaries first) to the column files. */
+    public void flush() {
+        try {
+            writePool();
+            if (typesChanged) {
+                writeTypeDictionary();
+                typesChanged = false;
+            }
+            writeFully(ids, idBuffer.flip());
+            writeFully(types, typeBuffer.flip());
+            writeFully(amounts, amountBuffer.flip());
+        } finally {
+            idBuffer.clear();
+            typeBuffer.clear();
+            amountBuffer.clear();
+        }
+    }
+
+    private void writeTypeDictionary() {
+        // Write-then-rename, so a crash never leaves a half-written dictionary.
+        Path dict = directory.resolve(TYPE_DICT);
+        Path temp = dict.resolveSibling(TYPE_DICT + ".tmp");
+        try {
+            Files.write(temp, typeNames, StandardCharsets.UTF_8);
+            Files.move(temp, dict, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + dict, e);
+        }
+    }
+
+    private void writePool() {
+        writeFully(idPool, poolBuffer.flip());
+        poolBuffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the transaction store", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        try (amounts; types; ids; idPool) {
+            amounts.force(false);
+            types.force(false);
+            ids.force(false);
+            idPool.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close the transaction store", e);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.course.lab02.patterns;
+
+import com.course.lab02.patterns.Events.*;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * The "Sliding Window" Failed-Login Detector.
+ * * PROBLEM: LegacyProcessor raises "ALARM" on EVERY failed login, so one
+ * typo pages on-call. Counting failures per username in a Map fixes that,
+ * but the map grows with every username an attacker makes up.
+ * * FIX: Count failures in a count-min sketch instead of a map.
+ * 1. The sketch is 'depth' rows of 'width' counters. A username bumps one
+ *    counter per row; its count is the smallest of those counters. Collisions
+ *    can only make a count too HIGH, never too low, so a real attacker is
+ *    never missed.
+ * 2. The window is split into 'buckets' sketches (a ring). Each bucket covers
+ *    window / buckets of time and is cleared when the ring comes back to it,
+ *    so old failures fall out of the window.
+ * 3. Every counter is an AtomicIntegerArray cell: recording a failure is a
+ *    few atomic increments, no lock, and memory never depends on how many
+ *    usernames are seen.
+ * * Only users that actually cross the threshold go into a small alert table,
+ * so each of them is reported once per window.
+ *
+ * <pre>
+ * FailedLoginDetector detector = new FailedLoginDetector(5, Duration.ofMinutes(1));
+ * String line = detector.process(new LoginEvent("hacker", false)); // "ALARM" on the 6th failure
+ * </pre>
+ */
+public class FailedLoginDetector {
+
+    private static final int DEFAULT_BUCKETS = 6;
+    private static final int DEFAULT_WIDTH = 1 << 15;
+    private static final int DEFAULT_DEPTH = 4;
+    private static final int DEFAULT_MAX_ALERTS = 1024;
+
+    // Marks a bucket that one thread is clearing; writers wait for it.
+    private static final long CLEARING = Long.MIN_VALUE;
+
+    private final int threshold;
+    private final long bucketNanos;
+    private final int buckets;
+    private final int width;
+    private final int depth;
+    private final int maxAlerts;
+    private final LongSupplier clock;
+    private final long origin;
+
+    // counters[(bucket * depth + row) * width + column]
+    private final AtomicIntegerArray counters;
+    // Which time slot each bucket currently holds.
+    private final AtomicLongArray epochs;
+    // username -> slot in which it was last reported. Only offenders get in.
+    private final ConcurrentHashMap<String, Long> alerted = new ConcurrentHashMap<>();
+
+    private final LegacyProcessor legacy = new LegacyProcessor();
+
+    /**
+     * @param threshold alert when a user has MORE than this many failures in the window
+     */
+    public FailedLoginDetector(int threshold, Duration window) {
+        this(threshold, window, DEFAULT_BUCKETS, DEFAULT_WIDTH, DEFAULT_DEPTH, DEFAULT_MAX_ALERTS, System::nanoTime);
+    }
+
+    /**
+     * @param buckets   how many steps the window slides in (more = smoother, more memory)
+     * @param width     counters per sketch row (more = fewer false alarms)
+     * @param depth     sketch rows (more = fewer false alarms, slower)
+     * @param maxAlerts bound of the table that de-duplicates alerts
+     * @param clock     nanosecond clock (System::nanoTime, or a fake one in tests)
+     */
+    public FailedLoginDetector(int threshold, Duration window, int buckets, int width, int depth,
+                               int maxAlerts, LongSupplier clock) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must be >= 0");
+        }
+        if (buckets < 1 || depth < 1 || maxAlerts < 1) {
+            throw new IllegalArgumentException("buckets, depth and maxAlerts must be >= 1");
+        }
+        if (width < 2 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width must be a power of two >= 2");
+        }
+        long windowNanos = window.toNanos();
+        if (windowNanos < buckets) {
+            throw new IllegalArgumentException("window is too short for " + buckets + " buckets");
+        }
+        this.threshold = threshold;
+        this.bucketNanos = windowNanos / buckets;
+        this.buckets = buckets;
+        this.width = width;
+        this.depth = depth;
+        this.maxAlerts = maxAlerts;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+
+        this.counters = new AtomicIntegerArray(buckets * depth * width);
+        this.epochs = new AtomicLongArray(buckets);
+        for (int b = 0; b < buckets; b++) {
+            epochs.set(b, -buckets - 1L); // older than any real slot
+        }
+    }
+
+    /**
+     * Drop-in for LegacyProcessor.process: a failed login only returns
+     * "ALARM" when its user crosses the threshold. Everything else, including
+     * a failed login below the threshold, gets LegacyProcessor's usual text.
+     */
+    public String process(Object event) {
+        if (event instanceof LoginEvent login && !login.success()) {
+            if (recordFailure(login.username())) {
+                return "ALARM";
+            }
+            return "User " + login.username() + " logged in: false";
+        }
+        return legacy.process(event);
+    }
+
+    /**
+     * Counts one failed login for the user.
+     *
+     * @return true if this failure raises an alert (first time over the
+     *         threshold in the current window)
+     */
+    public boolean recordFailure(String username) {
+        long slot = currentSlot();
+        int bucket = claimBucket(slot);
+        long hash = hash(username);
+        for (int row = 0; row < depth; row++) {
+            counters.incrementAndGet(index(bucket, row, column(hash, row)));
+        }
+        if (estimate(hash, slot) <= threshold) {
+            return false;
+        }
+        return raiseAlert(username, slot);
+    }
+
+    /** Estimated failures for the user in the window (never below the true count). */
+    public int estimate(String username) {
+        return estimate(hash(username), currentSlot());
+    }
+
+    /** Bytes held by the counters. Fixed at construction. */
+    public long memoryBytes() {
+        return (long) counters.length() * Integer.BYTES + (long) buckets * Long.BYTES;
+    }
+
+    private int estimate(long hash, long slot) {
+        int total = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            long epoch = epochs.get(bucket);
+            if (epoch == CLEARING || epoch <= slot - buckets) {
+                continue; // being reset, or outside the window
+            }
+            int min = Integer.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                min = Math.min(min, counters.get(index(bucket, row, column(hash, row))));
+            }
+            total += min;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the bucket for this slot, clearing it first if it still holds
+     * an older slot. Exactly one thread wins the CAS and clears it.
+     */
+    private int claimBucket(long slot) {
+        int bucket = (int) (slot % buckets);
+        while (true) {
+            long epoch = epochs.get(bucket);
+            if (epoch >= slot) {
+                // Current, or already moved on by a thread with a newer clock reading.
+                return bucket;
+            }
+            if (epoch == CLEARING) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (epochs.compareAndSet(bucket, epoch, CLEARING)) {
+                int from = bucket * depth * width;
+                for (int i = from, to = from + depth * width; i < to; i++) {
+                    counters.set(i, 0);
+                }
+                epochs.set(bucket, slot);
+                return bucket;
+            }
+        }
+    }
+
+    private boolean raiseAlert(String username, long slot) {
+        if (alerted.size() >= maxAlerts) {
+            // Forget users whose alert has left the window.
+            alerted.values().removeIf(alertSlot -> alertSlot <= slot - buckets);
+            if (alerted.size() >= maxAlerts) {
+                return true; // table full of live offenders: alert without de-duplication
+            }
+        }
+        boolean[] raised = {false};
+        alerted.compute(username, (user, alertSlot) -> {
+            if (alertSlot == null || alertSlot <= slot - buckets) {
+                raised[0] = true;
+                return slot;
+            }
+            return alertSlot;
+        });
+        return raised[0];
+    }
+
+    private long currentSlot() {
+        return (clock.getAsLong() - origin) / bucketNanos;
+    }
+
+    private int index(int bucket, int row, int column) {
+        return (bucket * depth + row) * width + column;
+    }
+
+    // Row i uses h1 + i * h2 (double hashing), so one 64-bit hash serves every row.
+    private int column(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + row * h2) & (width - 1);
+    }
+
+    // FNV-1a over the chars, then a 64-bit finaliser. String.hashCode is too
+    // easy to collide on purpose ("Aa" and "BB" share a hash).
+    private static long hash(String username) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < username.length(); i++) {
+            h ^= username.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
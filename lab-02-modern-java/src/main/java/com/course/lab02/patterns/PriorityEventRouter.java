@@ -0,0 +1,229 @@
+package com.course.lab02.patterns;
+
+import com.course.lab02.patterns.Events.*;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The "Priority Lane" Event Router.
+ * * PROBLEM: Every event goes through one synchronous process(Object) call.
+ * A flood of PaymentEvents sits in front of the failed login, so the
+ * "ALARM" comes out only after the whole flood has been handled.
+ * * FIX:
+ * 1. Each event type gets its own BOUNDED queue ("lane") and its own
+ *    virtual-thread workers, so one busy type cannot starve the others.
+ * 2. Failed logins go to the SECURITY lane. Besides its own worker, every
+ *    other worker checks that lane before taking its next event.
+ *    (Virtual threads are not time-sliced: a busy payment worker keeps its
+ *    carrier, so it has to give the alarm a turn itself.)
+ * 3. A full lane pushes back: offer() waits up to a timeout and then says
+ *    no, submit() blocks. Queues never grow without limit.
+ * * Per lane we measure depth, accepted/rejected/processed/failed counts and
+ * the latency from enqueue to handled. An event whose processor or sink
+ * throws is counted as failed; the worker carries on with the next one.
+ *
+ * <pre>
+ * try (var router = new PriorityEventRouter(new LegacyProcessor()::process, System.out::println, 1024, 2)) {
+ *     router.offer(new PaymentEvent("TX-1", 50.00), Duration.ofMillis(10));
+ * }
+ * </pre>
+ */
+public class PriorityEventRouter implements AutoCloseable {
+
+    /** Lanes in priority order: SECURITY is always served first. */
+    public enum Lane { SECURITY, LOGIN, PAYMENT, ERROR, OTHER }
+
+    public record LaneStats(Lane lane, int depth, int maxDepth, long accepted, long rejected,
+                            long processed, long failed, double meanLatencyMicros, long maxLatencyMicros) {}
+
+    private static final long IDLE_POLL_MILLIS = 50;
+
+    private record Envelope(Object event, long enqueuedNanos) {}
+
+    private final Function<Object, String> processor;
+    private final Consumer<String> sink;
+    private final Map<Lane, LaneState> lanes = new EnumMap<>(Lane.class);
+    private final LaneState security;
+    private final ExecutorService workers;
+    private volatile boolean running = true;
+
+    /**
+     * @param processor      turns an event into its output line (e.g. LegacyProcessor::process)
+     * @param sink           receives every output line; called from many threads
+     * @param queueCapacity  bound of each lane's queue
+     * @param workersPerLane virtual threads per lane
+     */
+    public PriorityEventRouter(Function<Object, String> processor, Consumer<String> sink,
+                               int queueCapacity, int workersPerLane) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be >= 1");
+        }
+        if (workersPerLane < 1) {
+            throw new IllegalArgumentException("workersPerLane must be >= 1");
+        }
+        this.processor = processor;
+        this.sink = sink;
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, new LaneState(lane, queueCapacity));
+        }
+        this.security = lanes.get(Lane.SECURITY);
+
+        this.workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("router-", 0).factory());
+        for (LaneState lane : lanes.values()) {
+            for (int i = 0; i < workersPerLane; i++) {
+                workers.submit(() -> work(lane));
+            }
+        }
+    }
+
+    /** Which lane an event goes to. Failed logins are security events. */
+    public static Lane laneOf(Object event) {
+        return switch (event) {
+            case LoginEvent login when !login.success() -> Lane.SECURITY;
+            case LoginEvent login -> Lane.LOGIN;
+            case PaymentEvent pay -> Lane.PAYMENT;
+            case ErrorEvent err -> Lane.ERROR;
+            case null, default -> Lane.OTHER;
+        };
+    }
+
+    /**
+     * Queues the event, waiting at most 'timeout' for room in its lane.
+     *
+     * @return false if the lane stayed full (the event was rejected)
+     */
+    public boolean offer(Object event, Duration timeout) throws InterruptedException {
+        ensureRunning();
+        LaneState lane = lanes.get(laneOf(event));
+        boolean accepted = lane.queue.offer(new Envelope(event, System.nanoTime()),
+            timeout.toNanos(), TimeUnit.NANOSECONDS);
+        lane.recordOffer(accepted);
+        return accepted;
+    }
+
+    /** Queues the event, blocking for as long as its lane is full. */
+    public void submit(Object event) throws InterruptedException {
+        ensureRunning();
+        LaneState lane = lanes.get(laneOf(event));
+        lane.queue.put(new Envelope(event, System.nanoTime()));
+        lane.recordOffer(true);
+    }
+
+    private void ensureRunning() {
+        if (!running) {
+            throw new IllegalStateException("Router is closed");
+        }
+    }
+
+    private void work(LaneState lane) {
+        try {
+            while (true) {
+                // The alarm first, whatever lane this worker belongs to.
+                if (lane != security) {
+                    Envelope urgent;
+                    while ((urgent = security.queue.poll()) != null) {
+                        handle(security, urgent);
+                    }
+                }
+                Envelope next = lane.queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (next != null) {
+                    handle(lane, next);
+                } else if (!running && lane.queue.isEmpty()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(LaneState lane, Envelope envelope) {
+        try {
+            sink.accept(processor.apply(envelope.event()));
+        } catch (RuntimeException e) {
+            // One bad event must not end the worker: its lane would never drain again.
+            lane.failed.increment();
+        } finally {
+            lane.recordProcessed(System.nanoTime() - envelope.enqueuedNanos());
+        }
+    }
+
+    public LaneStats stats(Lane lane) {
+        return lanes.get(lane).snapshot();
+    }
+
+    public Map<Lane, LaneStats> stats() {
+        Map<Lane, LaneStats> result = new EnumMap<>(Lane.class);
+        for (LaneState lane : lanes.values()) {
+            result.put(lane.lane, lane.snapshot());
+        }
+        return result;
+    }
+
+    /**
+     * Stops accepting events, lets the workers drain every lane, then waits for them.
+     */
+    @Override
+    public void close() {
+        running = false;
+        workers.close();
+    }
+
+    // --- Per-lane queue and counters -----------------------------------------
+
+    private static final class LaneState {
+        final Lane lane;
+        final BlockingQueue<Envelope> queue;
+
+        final LongAdder accepted = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder processed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder latencyNanos = new LongAdder();
+        final AtomicLong maxLatencyNanos = new AtomicLong();
+        final AtomicLong maxDepth = new AtomicLong();
+
+        LaneState(Lane lane, int capacity) {
+            this.lane = lane;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void recordOffer(boolean ok) {
+            if (ok) {
+                accepted.increment();
+                int depth = queue.size();
+                if (depth > maxDepth.get()) {
+                    maxDepth.accumulateAndGet(depth, Math::max);
+                }
+            } else {
+                rejected.increment();
+            }
+        }
+
+        void recordProcessed(long latency) {
+            processed.increment();
+            latencyNanos.add(latency);
+            if (latency > maxLatencyNanos.get()) {
+                maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            }
+        }
+
+        LaneStats snapshot() {
+            long done = processed.sum();
+            double mean = done == 0 ? 0.0 : latencyNanos.sum() / 1_000.0 / done;
+            return new LaneStats(lane, queue.size(), (int) maxDepth.get(), accepted.sum(), rejected.sum(),
+                done, failed.sum(), mean, TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos.get()));
+        }
+    }
+}
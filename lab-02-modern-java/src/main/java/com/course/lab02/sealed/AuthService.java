@@ -2,6 +2,16 @@ package com.course.lab02.sealed;
 
 public class AuthService {
 
+    private final CredentialVerifier verifier;
+
+    public AuthService() {
+        this(new CredentialVerifier());
+    }
+
+    public AuthService(CredentialVerifier verifier) {
+        this.verifier = verifier;
+    }
+
     // LEGACY: Since the interface is Open, the compiler forces a 'default' case.
     public String checkLegacy(LegacyAuth auth) {
         return switch (auth) {
@@ -20,4 +30,14 @@ public class AuthService {
         // <--- PASTE/TYPE SWITCH HERE
         return "";
     }
-}
\ No newline at end of file
+
+    // VERIFICATION: Checks the credential itself, not just its type.
+    public boolean authenticate(String account, SealedAuth auth) {
+        return switch (auth) {
+            case SealedAuth.Password p -> verifier.verifyPassword(account, p.hash());
+            case SealedAuth.FaceID f   -> verifier.verifyFace(account, f.data());
+            // Still needed until SealedAuth is sealed (see the lab TODO).
+            case null, default -> false;
+        };
+    }
+}
@@ -0,0 +1,193 @@
+package com.course.lab02.sealed;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The "Verification Engine" behind AuthService.
+ * * PROBLEM: Checking a password properly means a slow key-derivation
+ * function (PBKDF2, ~100k HMAC rounds). That is where login CPU goes, and
+ * clients often re-send the same credential several times a minute.
+ * * FIX:
+ * 1. PASSWORDS: PBKDF2-HMAC-SHA256 with a per-account salt. A SUCCESSFUL
+ *    check is cached for a short TTL in a bounded LRU map, so a repeat
+ *    login costs one HMAC instead of 100k rounds. Failures are never
+ *    cached: a wrong password costs a full PBKDF2 for known and unknown
+ *    accounts alike, so repeating a guess does not reveal which accounts
+ *    exist. The cache key is an HMAC of (stored hash, presented secret)
+ *    under a random per-instance key, so a heap dump does not allow
+ *    brute-forcing cached passwords at SHA-256 speed, and re-enrolling a
+ *    password makes old entries unreachable.
+ * 2. Hashes are compared with MessageDigest.isEqual (constant time), so the
+ *    response time does not reveal how many leading bytes matched.
+ * 3. FACE ID: templates live off-heap in a FaceTemplateStore and match when
+ *    few enough bits differ.
+ */
+public class CredentialVerifier {
+
+    private static final String KDF = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final String CACHE_MAC = "HmacSHA256";
+
+    private record StoredPassword(byte[] salt, byte[] hash) {}
+
+    private final int iterations;
+    private final int cacheSize;
+    private final long cacheTtlNanos;
+    private final LongSupplier clock;
+    private final FaceTemplateStore faces;
+    private final int maxFaceDistance;
+
+    private final Map<String, StoredPassword> passwords = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    // Unknown accounts are checked against this, so they take as long as known ones.
+    // Only a salt is kept: the derived key is thrown away.
+    private final byte[] dummySalt;
+
+    // Never leaves this object, and is new for every instance.
+    private final SecretKeySpec cacheKeySecret;
+
+    // Verified (account key -> expiry time). Access-ordered LinkedHashMap = LRU. Guarded by 'this'.
+    private final LinkedHashMap<String, Long> cache;
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    /** 100k PBKDF2 rounds, 10k cached results for 5 minutes, 1k FaceID templates of 512 bytes. */
+    public CredentialVerifier() {
+        this(100_000, 10_000, Duration.ofMinutes(5), new FaceTemplateStore(1_000, 512), 0.25, System::nanoTime);
+    }
+
+    /**
+     * @param iterations      PBKDF2 rounds for newly enrolled passwords
+     * @param cacheSize       most successful verifications kept
+     * @param cacheTtl        how long one success may be reused
+     * @param faces           where FaceID templates are stored
+     * @param maxFaceDistance largest share of differing bits (0.0 - 1.0) that still matches
+     * @param clock           nanosecond clock (System::nanoTime, or a fake one in tests)
+     */
+    public CredentialVerifier(int iterations, int cacheSize, Duration cacheTtl, FaceTemplateStore faces,
+                              double maxFaceDistance, LongSupplier clock) {
+        if (iterations < 1 || cacheSize < 1) {
+            throw new IllegalArgumentException("iterations and cacheSize must be >= 1");
+        }
+        if (maxFaceDistance < 0 || maxFaceDistance > 1) {
+            throw new IllegalArgumentException("maxFaceDistance must be between 0.0 and 1.0");
+        }
+        this.iterations = iterations;
+        this.cacheSize = cacheSize;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.clock = clock;
+        this.faces = faces;
+        this.maxFaceDistance = (int) (maxFaceDistance * faces.templateBits());
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > CredentialVerifier.this.cacheSize;
+            }
+        };
+        this.dummySalt = newSalt();
+        byte[] macKey = new byte[32];
+        random.nextBytes(macKey);
+        this.cacheKeySecret = new SecretKeySpec(macKey, CACHE_MAC);
+    }
+
+    // --- Passwords ---------------------------------------------------------
+
+    public void enrollPassword(String account, String secret) {
+        byte[] salt = newSalt();
+        passwords.put(account, new StoredPassword(salt, pbkdf2(secret, salt)));
+    }
+
+    public boolean verifyPassword(String account, String secret) {
+        StoredPassword stored = passwords.get(account);
+        if (stored == null) {
+            pbkdf2(secret, dummySalt); // same cost as a real check
+            return false;
+        }
+
+        String key = cacheKey(stored, secret);
+        long now = clock.getAsLong();
+        synchronized (this) {
+            Long expiresAt = cache.get(key);
+            if (expiresAt != null && now - expiresAt < 0) {
+                cacheHits.increment();
+                return true;
+            }
+        }
+        cacheMisses.increment();
+
+        // The slow part runs outside the lock.
+        boolean valid = MessageDigest.isEqual(stored.hash(), pbkdf2(secret, stored.salt()));
+        if (valid) {
+            synchronized (this) {
+                cache.put(key, now + cacheTtlNanos);
+            }
+        }
+        return valid;
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    // --- FaceID ------------------------------------------------------------
+
+    public void enrollFace(String account, byte[] template) {
+        faces.put(account, template);
+    }
+
+    public boolean verifyFace(String account, byte[] probe) {
+        int distance = faces.distance(account, probe);
+        return distance >= 0 && distance <= maxFaceDistance;
+    }
+
+    // --- Helpers -----------------------------------------------------------
+
+    private byte[] newSalt() {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        return salt;
+    }
+
+    private byte[] pbkdf2(String secret, byte[] salt) {
+        PBEKeySpec spec = new PBEKeySpec(secret.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(KDF).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(KDF + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private String cacheKey(StoredPassword stored, String secret) {
+        try {
+            Mac mac = Mac.getInstance(CACHE_MAC); // not thread-safe: one per call
+            mac.init(cacheKeySecret);
+            mac.update(stored.hash());
+            mac.update(secret.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(CACHE_MAC + " is not available", e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.course.lab02.sealed;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The "Off-Heap" FaceID Template Store.
+ * * PROBLEM: FaceID carries a byte[] template. Keeping one byte[] per
+ * enrolled user on the heap means millions of small arrays for the GC to
+ * trace and copy, for data that never changes.
+ * * FIX: All templates live in a few big direct ByteBuffer "slabs" outside
+ * the heap, at fixed-size slots. The heap only keeps account -> slot.
+ * * Matching XORs the stored and presented template 8 bytes at a time and
+ * counts the differing bits with Long.bitCount (one POPCNT instruction).
+ * ByteBuffer.mismatch (which the JDK compares many bytes at a time) finds
+ * the first difference, so an identical prefix is skipped for free.
+ */
+public class FaceTemplateStore {
+
+    // One direct buffer can hold at most 2GB; stay well below.
+    private static final int MAX_SLAB_BYTES = 1 << 30;
+
+    private final int templateBytes;
+    private final int slotsPerSlab;
+    private final int capacity;
+    private final ByteBuffer[] slabs;
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private int nextSlot;
+
+    /**
+     * @param capacity      how many templates can be stored
+     * @param templateBytes size of every template (a multiple of 8)
+     */
+    public FaceTemplateStore(int capacity, int templateBytes) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1");
+        }
+        if (templateBytes < 8 || templateBytes % 8 != 0) {
+            throw new IllegalArgumentException("templateBytes must be a positive multiple of 8");
+        }
+        this.capacity = capacity;
+        this.templateBytes = templateBytes;
+        this.slotsPerSlab = Math.min(capacity, MAX_SLAB_BYTES / templateBytes);
+        int slabCount = (capacity + slotsPerSlab - 1) / slotsPerSlab;
+        this.slabs = new ByteBuffer[slabCount];
+        for (int i = 0; i < slabCount; i++) {
+            int slotsInSlab = Math.min(slotsPerSlab, capacity - i * slotsPerSlab);
+            // Big-endian like the byte[]: the long at offset i holds bytes i..i+7 in order.
+            slabs[i] = ByteBuffer.allocateDirect(slotsInSlab * templateBytes).order(ByteOrder.BIG_ENDIAN);
+        }
+    }
+
+    /**
+     * Stores (or replaces) the account's template. Replacing a template while
+     * the same account is being verified may let that one check see a mix of both.
+     */
+    public synchronized void put(String account, byte[] template) {
+        checkLength(template);
+        Integer slot = slots.get(account);
+        if (slot == null) {
+            if (nextSlot == capacity) {
+                throw new IllegalStateException("Template store is full (" + capacity + " templates)");
+            }
+            slot = nextSlot++;
+        }
+        slab(slot).put(offset(slot), template);
+        slots.put(account, slot); // publishes the bytes to readers
+    }
+
+    public boolean contains(String account) {
+        return slots.containsKey(account);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /** Off-heap bytes reserved for templates. */
+    public long offHeapBytes() {
+        long total = 0;
+        for (ByteBuffer slab : slabs) {
+            total += slab.capacity();
+        }
+        return total;
+    }
+
+    /**
+     * Number of differing bits between the stored template and 'probe'.
+     *
+     * @return the Hamming distance, or -1 if the account has no template
+     */
+    public int distance(String account, byte[] probe) {
+        checkLength(probe);
+        Integer slot = slots.get(account);
+        if (slot == null) {
+            return -1;
+        }
+        ByteBuffer slab = slab(slot);
+        int base = offset(slot);
+
+        ByteBuffer presented = ByteBuffer.wrap(probe); // big-endian, same as the slab
+        int first = slab.slice(base, templateBytes).mismatch(presented);
+        if (first == -1) {
+            return 0; // identical
+        }
+        // Everything before the first mismatch is equal: start counting there.
+        int bits = 0;
+        for (int i = first & ~(Long.BYTES - 1); i < templateBytes; i += Long.BYTES) {
+            bits += Long.bitCount(slab.getLong(base + i) ^ presented.getLong(i));
+        }
+        return bits;
+    }
+
+    /** Bits per template, i.e. the largest possible distance. */
+    public int templateBits() {
+        return templateBytes * 8;
+    }
+
+    private void checkLength(byte[] template) {
+        if (template.length != templateBytes) {
+            throw new IllegalArgumentException(
+                "Template must be " + templateBytes + " bytes, was " + template.length);
+        }
+    }
+
+    private ByteBuffer slab(int slot) {
+        return slabs[slot / slotsPerSlab];
+    }
+
+    private int offset(int slot) {
+        return (slot % slotsPerSlab) * templateBytes;
+    }
+}
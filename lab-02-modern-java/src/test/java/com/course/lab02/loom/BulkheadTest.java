@@ -0,0 +1,48 @@
+package com.course.lab02.loom;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkheadTest {
+
+    private final LoomSimulation sim = new LoomSimulation();
+
+    @Test
+    void testBulkhead_CapsConcurrencyAtPermits() {
+        // 200 tasks of 50ms through 10 "connections": at least 20 rounds = 1 second.
+        Bulkhead bulkhead = new Bulkhead(10, 1_000, Duration.ofSeconds(30));
+        BulkheadReport report = sim.runBulkhead(200, bulkhead, Duration.ofMillis(50));
+
+        System.out.println("Bulkhead: " + report);
+        assertEquals(200, report.completed());
+        assertEquals(0, report.rejected());
+        assertTrue(report.peakInUse() <= 10, "Never more tasks than permits.");
+        assertTrue(report.elapsedMillis() >= 1_000, "10 permits cannot run 200 x 50ms faster than 1s.");
+        assertTrue(report.meanQueueWaitMillis() > 0);
+    }
+
+    @Test
+    void testBulkhead_ShedsWhenTheLineIsFull() {
+        Bulkhead bulkhead = new Bulkhead(2, 5, Duration.ofSeconds(30));
+        BulkheadReport report = sim.runBulkhead(100, bulkhead, Duration.ofMillis(100));
+
+        System.out.println("Shedding: " + report);
+        assertTrue(report.shed() > 0, "Tasks beyond 2 running + 5 waiting must be shed.");
+        assertEquals(100, report.completed() + report.rejected());
+    }
+
+    @Test
+    void testBulkhead_TimesOutLongWaits() {
+        // One permit, 100ms tasks, 150ms patience: only the first couple can make it.
+        Bulkhead bulkhead = new Bulkhead(1, 100, Duration.ofMillis(150));
+        BulkheadReport report = sim.runBulkhead(10, bulkhead, Duration.ofMillis(100));
+
+        System.out.println("Timeouts: " + report);
+        assertTrue(report.timedOut() > 0);
+        assertEquals(0, report.shed());
+        assertEquals(10, report.completed() + report.timedOut());
+        assertTrue(report.maxQueueWaitMillis() >= 150);
+    }
+}
@@ -0,0 +1,92 @@
+package com.course.lab02.loom;
+
+import com.course.lab02.loom.LoadHarness.ExecutorKind;
+import org.junit.jupiter.api.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadHarnessTest {
+
+    @Test
+    void testHistogram_PercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        assertEquals(10_000, histogram.count());
+        assertEquals(5_000_000, histogram.valueAt(50), 5_000_000 * 0.02);
+        assertEquals(9_900_000, histogram.valueAt(99), 9_900_000 * 0.02);
+        assertEquals(9_990_000, histogram.valueAt(99.9), 9_990_000 * 0.02);
+        assertEquals(10_000_000, histogram.valueAt(100));
+    }
+
+    @Test
+    void testHistogram_BucketsAreContiguous() {
+        for (int index = 0; index < 3_000; index++) {
+            long high = LatencyHistogram.highestValueIn(index);
+            assertEquals(index, LatencyHistogram.indexOf(high));
+            assertEquals(index + 1, LatencyHistogram.indexOf(high + 1));
+        }
+    }
+
+    @Test
+    void testCorrection_AddsTheMissedCalls() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // One 1-second stall while calls were expected every 100ms.
+        histogram.recordCorrected(1_000_000_000L, 100_000_000L);
+
+        assertEquals(10, histogram.count());
+        assertTrue(histogram.valueAt(50) < 600_000_000L, "The missed calls waited less than the stalled one.");
+    }
+
+    @Test
+    void testFixedRate_OverloadedPoolShowsQueueingInTheTail() {
+        // One platform thread serves 10ms calls at most 100/s; we send 200/s.
+        LoadHarness.Result platform = LoadHarness.fixedRate(ExecutorKind.PLATFORM, 1, 200, Duration.ofMillis(500),
+            () -> new BlockingTask(Duration.ofMillis(10)));
+        LoadHarness.Result virtual = LoadHarness.fixedRate(ExecutorKind.VIRTUAL, 1, 200, Duration.ofMillis(500),
+            () -> new BlockingTask(Duration.ofMillis(10)));
+
+        System.out.println(LoadHarness.CSV_HEADER + "\n" + platform.toCsv() + "\n" + virtual.toCsv());
+        assertEquals(100, platform.completed());
+        assertEquals(100, virtual.completed());
+        assertTrue(platform.p99Millis() > 200, "Requests due while the thread was busy must count their wait.");
+        assertTrue(virtual.p99Millis() < platform.p99Millis());
+        assertTrue(virtual.p50Millis() >= 10);
+    }
+
+    @Test
+    void testFixedConcurrency_StructuredRunsAndPropagatesFailures() {
+        LoadHarness.Result result = LoadHarness.fixedConcurrency(ExecutorKind.STRUCTURED, 20, Duration.ofMillis(300),
+            Duration.ofMillis(10), () -> new BlockingTask(Duration.ofMillis(10)));
+
+        assertTrue(result.completed() > 100);
+        assertEquals(0, result.errors());
+        assertTrue(result.throughputPerSecond() > 500);
+
+        assertThrows(IllegalStateException.class,
+            () -> LoadHarness.runInScope(() -> { throw new IllegalStateException("boom"); }));
+    }
+
+    @Test
+    void testCsv_HasOneRowPerResult() throws Exception {
+        LoadHarness.Result result = LoadHarness.fixedRate(ExecutorKind.VIRTUAL, 1, 100, Duration.ofMillis(100),
+            () -> new BlockingTask(Duration.ofMillis(1)));
+        Path file = Files.createTempFile("load", ".csv");
+
+        LoadHarness.writeCsv(List.of(result, result), file);
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        assertEquals(LoadHarness.CSV_HEADER, lines.get(0));
+        assertTrue(lines.get(1).startsWith("VIRTUAL,FIXED_RATE,100.0,10,0,"));
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,37 @@
+package com.course.lab02.loom;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProfilerTest {
+
+    private final LoomSimulation sim = new LoomSimulation();
+
+    @Test
+    void testSynchronizedSleep_ShowsUpAsPinned() {
+        LoomProfile profile = sim.runVirtualProfiled(20, () -> new PinningTask(Duration.ofMillis(20)));
+
+        System.out.println(profile.summary());
+        assertEquals(20, profile.pinnedEvents(), "Every synchronized sleep pins its carrier.");
+        // JFR's clock is coarser than sleep's: allow a little slack per event.
+        assertTrue(profile.pinnedTotal().toMillis() >= 20 * 15);
+        assertFalse(profile.pinnedStacks().isEmpty());
+        assertTrue(profile.pinnedStacks().get(0).stack().contains("PinningTask.run"),
+            "The top pinned stack should point at PinningTask: " + profile.pinnedStacks().get(0));
+        // The very last VirtualThreadEnd may land just after the recording stops.
+        assertTrue(profile.threadLifetime().samples() >= 19);
+    }
+
+    @Test
+    void testPlainSleep_DoesNotPin() {
+        LoomProfile profile = sim.runVirtualProfiled(20, () -> new BlockingTask(Duration.ofMillis(20)));
+
+        System.out.println(profile.summary());
+        assertEquals(0, profile.pinnedEvents());
+        assertEquals(20, profile.virtualThreadsStarted());
+        assertTrue(profile.threadLifetime().p50() >= 20, "Each thread lives at least as long as its sleep.");
+    }
+}
@@ -0,0 +1,144 @@
+package com.course.lab02.modern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnStoreTest {
+
+    private static final String[] TYPES = {"DEBIT", "CREDIT", "REFUND"};
+
+    @TempDir
+    Path dir;
+
+    private static double amountOf(int i) {
+        return (i % 1000) + (i % 100) / 100.0;
+    }
+
+    private static void writeRows(TransactionColumnWriter writer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            // 1000 distinct customer ids, repeated: the pool stores each once.
+            writer.append("CUST-" + (i % 1000), amountOf(i), TYPES[i % TYPES.length]);
+        }
+    }
+
+    @Test
+    void testAggregates_MatchTheRowsWritten() {
+        int rows = 100_000;
+        try (TransactionColumnWriter writer = new TransactionColumnWriter(dir, 4096)) {
+            writeRows(writer, 0, rows);
+        }
+
+        double total = 0;
+        double[] byType = new double[TYPES.length];
+        for (int i = 0; i < rows; i++) {
+            total += amountOf(i);
+            byType[i % TYPES.length] += amountOf(i);
+        }
+
+        TransactionColumnReader reader = new TransactionColumnReader(dir);
+        assertEquals(rows, reader.rows());
+        assertEquals(total, reader.sum(), 1e-6);
+        assertEquals(byType[0], reader.sum("DEBIT"), 1e-6);
+        assertEquals(0.0, reader.sum("UNKNOWN"));
+
+        Map<String, Double> sums = reader.sumByType();
+        assertEquals(3, sums.size());
+        assertEquals(byType[1], sums.get("CREDIT"), 1e-6);
+        assertEquals(byType[2], sums.get("REFUND"), 1e-6);
+        assertEquals(33_334L, reader.countByType().get("DEBIT"));
+    }
+
+    @Test
+    void testFilter_ReturnsMatchingRows() {
+        try (TransactionColumnWriter writer = TransactionColumnWriter.open(dir)) {
+            writer.append("TX-1", 50.00, "DEBIT");
+            writer.append("TX-2", 900.00, "DEBIT");
+            writer.append("TX-3", 950.00, "CREDIT");
+            writer.append("TX-4", 1200.00, "DEBIT");
+        }
+
+        TransactionColumnReader reader = new TransactionColumnReader(dir);
+        assertArrayEquals(new int[] {1, 3}, reader.filter("DEBIT", a -> a > 100));
+        assertArrayEquals(new int[] {1, 2}, reader.filter(null, a -> a >= 900 && a < 1000));
+        assertArrayEquals(new int[0], reader.filter("REFUND", a -> true));
+
+        assertEquals(new LegacyTransaction("TX-4", 1200.00, "DEBIT"), reader.get(3));
+        assertEquals("TX-3", reader.id(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> reader.get(4));
+    }
+
+    @Test
+    void testIds_AreInterned() throws IOException {
+        try (TransactionColumnWriter writer = new TransactionColumnWriter(dir, 1024)) {
+            writeRows(writer, 0, 10_000);
+        }
+
+        // 1000 distinct ids of 6-8 bytes plus a 2-byte length each; not 10,000.
+        assertTrue(Files.size(dir.resolve(TransactionColumnWriter.ID_POOL)) < 10_000);
+        TransactionColumnReader reader = new TransactionColumnReader(dir);
+        assertEquals("CUST-7", reader.id(7));
+        assertEquals("CUST-7", reader.id(1007));
+    }
+
+    @Test
+    void testReopen_AppendsAfterExistingRows() {
+        try (TransactionColumnWriter writer = new TransactionColumnWriter(dir, 256)) {
+            writeRows(writer, 0, 1000);
+        }
+        try (TransactionColumnWriter writer = new TransactionColumnWriter(dir, 256)) {
+            writeRows(writer, 1000, 1500);
+            writer.append("NEW-ID", 1.25, "CHARGEBACK");
+        }
+
+        TransactionColumnReader reader = new TransactionColumnReader(dir);
+        assertEquals(1501, reader.rows());
+        assertEquals(new LegacyTransaction("CUST-999", amountOf(999), TYPES[999 % 3]), reader.get(999));
+        assertEquals(new LegacyTransaction("CUST-200", amountOf(1200), TYPES[1200 % 3]), reader.get(1200));
+        assertEquals(new LegacyTransaction("NEW-ID", 1.25, "CHARGEBACK"), reader.get(1500));
+        assertEquals(4, reader.sumByType().size());
+    }
+
+    @Test
+    void testRejectedAppend_LeavesColumnsAligned() {
+        try (TransactionColumnWriter writer = TransactionColumnWriter.open(dir)) {
+            writer.append("A", 1.0, "DEBIT");
+            assertThrows(IllegalArgumentException.class, () -> writer.append("B", 2.0, "BAD\nTYPE"));
+            assertThrows(IllegalArgumentException.class, () -> writer.append("X".repeat(70_000), 2.0, "DEBIT"));
+            assertThrows(NullPointerException.class, () -> writer.append(null, 2.0, "DEBIT"));
+            writer.append("C", 3.0, "CREDIT");
+        }
+
+        TransactionColumnReader reader = new TransactionColumnReader(dir);
+        assertEquals(2, reader.rows());
+        assertEquals(new LegacyTransaction("A", 1.0, "DEBIT"), reader.get(0));
+        assertEquals(new LegacyTransaction("C", 3.0, "CREDIT"), reader.get(1));
+    }
+
+    @Test
+    void testTornColumn_IsTrimmedToCommittedRows() throws IOException {
+        try (TransactionColumnWriter writer = new TransactionColumnWriter(dir, 64)) {
+            writeRows(writer, 0, 100);
+        }
+        // A crash after writing part of a row to one column.
+        try (FileChannel amounts = FileChannel.open(dir.resolve(TransactionColumnWriter.AMOUNTS),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            amounts.write(ByteBuffer.allocate(12));
+        }
+        assertEquals(100, new TransactionColumnReader(dir).rows());
+
+        try (TransactionColumnWriter writer = new TransactionColumnWriter(dir, 64)) {
+            writer.append("TX-AFTER", 7.5, "CREDIT");
+        }
+        TransactionColumnReader reader = new TransactionColumnReader(dir);
+        assertEquals(101, reader.rows());
+        assertEquals(new LegacyTransaction("TX-AFTER", 7.5, "CREDIT"), reader.get(100));
+    }
+}
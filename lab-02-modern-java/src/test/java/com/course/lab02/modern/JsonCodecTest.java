@@ -0,0 +1,154 @@
+package com.course.lab02.modern;
+
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.DoubleAdder;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonCodecTest {
+
+    public enum Channel { WEB, BRANCH }
+
+    public record Tx(String id, double amount, String type) {}
+
+    public record Transfer(long sequence, Tx tx, Channel channel, boolean flagged, Integer retries) {}
+
+    public record Fee(BigDecimal amount, BigInteger units) {}
+
+    public record Initial(char code) {}
+
+    public record Counters(long id, int count, short small, byte tiny, Long boxed) {}
+
+    @Test
+    void testRecord_WritesCompactJson() {
+        JsonWriter json = new JsonWriter(64);
+        json.write(new Tx("TX-100", 50.00, "DEBIT"));
+
+        assertEquals("{\"id\":\"TX-100\",\"amount\":50.0,\"type\":\"DEBIT\"}", json.toString());
+    }
+
+    @Test
+    void testGetterClass_WritesSameFieldsAsToJson() {
+        LegacyTransaction legacy = new LegacyTransaction("TX-100", 50.00, "DEBIT");
+        JsonWriter json = new JsonWriter(64);
+        json.write(legacy);
+
+        // toJSON() pretty-prints; without the layout whitespace it is the same document.
+        assertEquals(legacy.toJSON().replace("\n", "").replace(": ", ":").replace("  ", ""), json.toString());
+    }
+
+    @Test
+    void testRoundTrip_NestedEnumsNullsAndEscapes() {
+        Transfer transfer = new Transfer(42L, new Tx("TX-\"7\"\n€ 😀", -12.5, null), Channel.BRANCH, true, null);
+        JsonWriter json = new JsonWriter(16);
+        json.write(transfer);
+
+        Transfer back = new JsonReader(json.toByteArray()).read(Transfer.class);
+        assertEquals(transfer, back);
+    }
+
+    @Test
+    void testReader_SkipsUnknownFieldsAndDefaultsMissingOnes() {
+        String text = "{ \"type\" : \"CREDIT\", \"extra\": {\"a\": [1, 2, {\"b\": null}]}, \"id\": \"X\" }";
+
+        Tx tx = new JsonReader(text.getBytes()).read(Tx.class);
+
+        assertEquals(new Tx("X", 0.0, "CREDIT"), tx);
+    }
+
+    @Test
+    void testNumbers_MatchDoubleToStringAndParseDouble() {
+        Random random = new Random(3);
+        JsonWriter json = new JsonWriter(1 << 16);
+        List<Tx> rows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            double amount = switch (i % 3) {
+                case 0 -> random.nextInt(1_000_000) / 100.0;
+                case 1 -> random.nextDouble() * 1e9;
+                default -> -random.nextDouble() / 1e6;
+            };
+            Tx tx = new Tx("TX-" + i, amount, "DEBIT");
+            rows.add(tx);
+            json.reset();
+            json.write(tx);
+            assertEquals("{\"id\":\"TX-" + i + "\",\"amount\":" + amount + ",\"type\":\"DEBIT\"}", json.toString());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonWriter stream = new JsonWriter(out, 256)) {
+            for (Tx tx : rows) {
+                stream.write(tx).newLine();
+            }
+        }
+        assertEquals(rows, JsonReader.readAll(out.toByteArray(), Tx.class));
+    }
+
+    @Test
+    void testGetterClass_CannotBeRead() {
+        assertThrows(UnsupportedOperationException.class,
+            () -> new JsonReader("{}".getBytes()).read(LegacyTransaction.class));
+    }
+
+    @Test
+    void testBigNumbers_AreWrittenAndReadExactly() {
+        Fee fee = new Fee(new BigDecimal("12345678901234567.89"), new BigInteger("123456789012345678901234567890"));
+        JsonWriter json = new JsonWriter(64);
+        json.write(fee);
+
+        assertEquals("{\"amount\":12345678901234567.89,\"units\":123456789012345678901234567890}", json.toString());
+        assertEquals(fee, new JsonReader(json.toByteArray()).read(Fee.class));
+    }
+
+    @Test
+    void testUnsupportedValues_AreRejectedNotWrittenAsEmptyObjects() {
+        JsonWriter json = new JsonWriter(64);
+        assertThrows(IllegalArgumentException.class, () -> json.write(List.of(1, 2)));
+        assertThrows(IllegalArgumentException.class, () -> json.write(Map.of("a", 1)));
+        assertThrows(IllegalArgumentException.class, () -> json.write(new int[] {1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> json.write(new DoubleAdder()));
+        assertThrows(IllegalArgumentException.class, () -> json.write(new Object()));
+    }
+
+    @Test
+    void testCharField_MustBeOneCharacter() {
+        assertEquals(new Initial('Q'), new JsonReader("{\"code\":\"Q\"}".getBytes()).read(Initial.class));
+        assertThrows(IllegalArgumentException.class,
+            () -> new JsonReader("{\"code\":\"\"}".getBytes()).read(Initial.class));
+        assertThrows(IllegalArgumentException.class,
+            () -> new JsonReader("{\"code\":\"QR\"}".getBytes()).read(Initial.class));
+    }
+
+    @Test
+    void testLongs_RoundTripExactlyAtEveryLength() {
+        JsonWriter json = new JsonWriter(128);
+        for (long id : new long[] {Long.MAX_VALUE, Long.MIN_VALUE, 1760000000123456789L, -999_999_999_999_999_999L, 0}) {
+            Counters counters = new Counters(id, Integer.MIN_VALUE, Short.MAX_VALUE, Byte.MIN_VALUE, id);
+            json.reset();
+            json.write(counters);
+
+            assertEquals(counters, new JsonReader(json.toByteArray()).read(Counters.class), "id " + id);
+        }
+    }
+
+    @Test
+    void testIntegralFields_RejectFractionsAndOverflow() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new JsonReader("{\"id\":1.5}".getBytes()).read(Counters.class));
+        assertThrows(IllegalArgumentException.class,
+            () -> new JsonReader("{\"id\":1e3}".getBytes()).read(Counters.class));
+        assertThrows(IllegalArgumentException.class,
+            () -> new JsonReader("{\"id\":9223372036854775808}".getBytes()).read(Counters.class));
+        assertThrows(IllegalArgumentException.class,
+            () -> new JsonReader("{\"count\":2147483648}".getBytes()).read(Counters.class));
+        assertThrows(IllegalArgumentException.class,
+            () -> new JsonReader("{\"small\":32768}".getBytes()).read(Counters.class));
+        assertThrows(IllegalArgumentException.class,
+            () -> new JsonReader("{\"tiny\":-129}".getBytes()).read(Counters.class));
+    }
+}
@@ -0,0 +1,106 @@
+package com.course.lab02.patterns;
+
+import com.course.lab02.patterns.Events.*;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DetectorTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private FailedLoginDetector detector(int threshold, int width) {
+        // 60 second window in 6 buckets of 10 seconds.
+        return new FailedLoginDetector(threshold, Duration.ofSeconds(60), 6, width, 4, 64, now::get);
+    }
+
+    private void advance(int seconds) {
+        now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    @Test
+    void testAlarm_OnlyAfterThresholdIsExceeded() {
+        FailedLoginDetector detector = detector(3, 1 << 10);
+        LoginEvent typo = new LoginEvent("alice", false);
+
+        assertEquals("User alice logged in: false", detector.process(typo));
+        assertEquals("User alice logged in: false", detector.process(typo));
+        assertEquals("User alice logged in: false", detector.process(typo));
+        assertEquals("ALARM", detector.process(typo), "The 4th failure exceeds 3.");
+        assertEquals("User alice logged in: false", detector.process(typo), "Reported once per window.");
+
+        assertEquals("User bob logged in: true", detector.process(new LoginEvent("bob", true)));
+        assertEquals(5, detector.estimate("alice"));
+    }
+
+    @Test
+    void testWindow_SlidesOldFailuresOut() {
+        FailedLoginDetector detector = detector(3, 1 << 10);
+
+        detector.recordFailure("mallory");
+        detector.recordFailure("mallory");
+        advance(30);
+        detector.recordFailure("mallory");
+        assertEquals(3, detector.estimate("mallory"));
+
+        // The first two failures are now more than 60 seconds old.
+        advance(35);
+        assertEquals(1, detector.estimate("mallory"));
+        assertFalse(detector.recordFailure("mallory"));
+        assertFalse(detector.recordFailure("mallory"));
+        assertTrue(detector.recordFailure("mallory"), "3 in the window plus this one exceeds 3.");
+
+        advance(120);
+        assertEquals(0, detector.estimate("mallory"));
+    }
+
+    @Test
+    void testManyUsers_ConstantMemoryAndNoMissedAttacker() {
+        FailedLoginDetector detector = detector(3, 1 << 16);
+        long memory = detector.memoryBytes();
+
+        int falseAlarms = 0;
+        for (int i = 0; i < 50_000; i++) {
+            if (detector.recordFailure("user-" + i)) {
+                falseAlarms++;
+            }
+        }
+        boolean attackerCaught = false;
+        for (int i = 0; i < 4; i++) {
+            attackerCaught |= detector.recordFailure("attacker");
+        }
+
+        assertEquals(memory, detector.memoryBytes());
+        assertTrue(attackerCaught);
+        assertTrue(falseAlarms <= 5, "Too many false alarms: " + falseAlarms);
+    }
+
+    @Test
+    void testConcurrentFailures_AreAllCounted() throws InterruptedException {
+        FailedLoginDetector detector = detector(1_000, 1 << 10);
+        AtomicInteger alarms = new AtomicInteger();
+        ExecutorService service = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            service.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (detector.recordFailure("botnet")) {
+                        alarms.incrementAndGet();
+                    }
+                }
+            });
+        }
+        service.shutdown();
+        service.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertEquals(4_000, detector.estimate("botnet"));
+        assertEquals(1, alarms.get(), "Exactly one alert for the whole burst.");
+    }
+}
@@ -0,0 +1,88 @@
+package com.course.lab02.patterns;
+
+import com.course.lab02.patterns.Events.*;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DispatcherTest {
+
+    @Test
+    void testBatch_MatchesLegacyOutput() {
+        List<Object> batch = List.of(
+            new LoginEvent("Alice", true),
+            new LoginEvent("hacker", false),
+            new PaymentEvent("TX-999", 50.00),
+            new ErrorEvent(404, "Not Found"),
+            "not an event");
+
+        LegacyProcessor legacy = new LegacyProcessor();
+        StringBuilder expected = new StringBuilder();
+        for (Object event : batch) {
+            expected.append(legacy.process(event)).append('\n');
+        }
+
+        StringBuilder out = new StringBuilder();
+        int handled = BatchDispatcher.standard().processBatch(batch, out);
+
+        assertEquals(5, handled);
+        assertEquals(expected.toString(), out.toString());
+    }
+
+    @Test
+    void testCustomHandlers_AreDispatchedByClass() {
+        BatchDispatcher dispatcher = BatchDispatcher.builder()
+            .on(PaymentEvent.class, (pay, out) -> out.append(pay.id()))
+            .build();
+        StringBuilder out = new StringBuilder();
+
+        dispatcher.processBatch(List.of(new PaymentEvent("A", 1), new ErrorEvent(1, "x")), out);
+
+        assertEquals("A\nUnknown Event\n", out.toString());
+    }
+
+    @Test
+    void testSubclass_UsesTheHandlerOfItsClosestRegisteredSuperclass() {
+        BatchDispatcher dispatcher = BatchDispatcher.builder()
+            .on(Number.class, (n, out) -> out.append("number ").append(n))
+            .on(Integer.class, (i, out) -> out.append("int ").append(i))
+            .build();
+        StringBuilder out = new StringBuilder();
+
+        // Long and Double are resolved through Number once, then served from the cache.
+        dispatcher.processBatch(List.of(1, 2L, 3.5, 4L, "text"), out);
+
+        assertEquals("int 1\nnumber 2\nnumber 3.5\nnumber 4\nUnknown Event\n", out.toString());
+    }
+
+    @Test
+    void testInterfaceHandler_IsRejected() {
+        BatchDispatcher.Builder builder = BatchDispatcher.builder();
+
+        // CharSequence is only implemented, never extended: the handler could never match.
+        assertThrows(IllegalArgumentException.class,
+            () -> builder.on(CharSequence.class, (text, out) -> out.append(text)));
+        assertThrows(IllegalArgumentException.class, () -> builder.on(Events.class, (event, out) -> { }));
+    }
+
+    @Test
+    void testAmounts_AreFormattedLikeDoubleToString() {
+        Random random = new Random(42);
+        double[] fixed = {0.0, -0.0, 0.01, 0.1, 0.5, 1.0, 50.0, 12.34, 99.9, 9_999_999.99, 1e7, -5.25, 1e-5, 0.015, Double.NaN};
+        for (double amount : fixed) {
+            assertFormatted(amount);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertFormatted(random.nextInt(100_000_000) / 100.0);
+            assertFormatted(random.nextDouble() * 1_000);
+        }
+    }
+
+    private static void assertFormatted(double amount) {
+        StringBuilder out = new StringBuilder();
+        BatchDispatcher.appendAmount(out, amount);
+        assertEquals(Double.toString(amount), out.toString());
+    }
+}
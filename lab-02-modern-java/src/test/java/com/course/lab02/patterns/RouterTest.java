@@ -0,0 +1,165 @@
+package com.course.lab02.patterns;
+
+import com.course.lab02.patterns.Events.*;
+import com.course.lab02.patterns.PriorityEventRouter.Lane;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RouterTest {
+
+    private final LegacyProcessor legacy = new LegacyProcessor();
+
+    @Test
+    void testRouter_HandlesEveryEventLikeLegacy() throws InterruptedException {
+        List<String> output = Collections.synchronizedList(new ArrayList<>());
+        List<Object> events = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            events.add(new PaymentEvent("TX-" + i, i));
+            events.add(new LoginEvent("user" + i, i % 10 != 0));
+            events.add(new ErrorEvent(500, "Boom " + i));
+        }
+
+        try (var router = new PriorityEventRouter(legacy::process, output::add, 64, 2)) {
+            for (Object event : events) {
+                router.submit(event);
+            }
+        }
+
+        List<String> expected = new ArrayList<>(events.stream().map(legacy::process).toList());
+        List<String> actual = new ArrayList<>(output);
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testAlarm_OvertakesPaymentFlood() throws InterruptedException {
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch firstPaymentStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstPayment = new CountDownLatch(1);
+        CountDownLatch decoysStarted = new CountDownLatch(4);
+        CountDownLatch releaseDecoys = new CountDownLatch(1);
+
+        try (var router = new PriorityEventRouter(event -> {
+                if (event instanceof PaymentEvent pay) {
+                    handled.add(pay.id());
+                    if (pay.id().equals("TX-0")) {
+                        firstPaymentStarted.countDown();
+                        await(releaseFirstPayment);
+                    }
+                } else if (event instanceof LoginEvent login) {
+                    handled.add(login.username());
+                    if (login.username().startsWith("decoy")) {
+                        decoysStarted.countDown();
+                        await(releaseDecoys);
+                    }
+                }
+                return legacy.process(event);
+            }, line -> { }, 1_000, 1)) {
+            try {
+                router.submit(new PaymentEvent("TX-0", 10.0));
+                assertTrue(firstPaymentStarted.await(5, TimeUnit.SECONDS));
+                // Four failed logins tie up the other four workers, the SECURITY one
+                // included: only the payment worker is left to raise the next alarm.
+                for (int i = 0; i < 4; i++) {
+                    router.submit(new LoginEvent("decoy" + i, false));
+                }
+                assertTrue(decoysStarted.await(5, TimeUnit.SECONDS));
+
+                for (int i = 1; i < 500; i++) {
+                    router.submit(new PaymentEvent("TX-" + i, 10.0));
+                }
+                router.submit(new LoginEvent("hacker", false));
+                releaseFirstPayment.countDown();
+
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (!handled.contains("TX-1")) {
+                    assertTrue(System.nanoTime() < deadline, "The payment worker is stuck.");
+                    TimeUnit.MILLISECONDS.sleep(5);
+                }
+                assertTrue(handled.indexOf("hacker") >= 0 && handled.indexOf("hacker") < handled.indexOf("TX-1"),
+                    "The payment worker must take the ALARM before its next payment: " + handled.subList(0, 7));
+            } finally {
+                // Let every worker go, or close() would wait for them forever.
+                releaseFirstPayment.countDown();
+                releaseDecoys.countDown();
+            }
+        }
+    }
+
+    @Test
+    void testFullLane_RejectsWithBackpressure() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (var router = new PriorityEventRouter(event -> {
+                await(release);
+                return legacy.process(event);
+            }, line -> { }, 2, 1)) {
+
+            // One event is held by the worker, two fill the queue.
+            int accepted = 0;
+            for (int i = 0; i < 10; i++) {
+                if (router.offer(new PaymentEvent("TX-" + i, 1.0), Duration.ofMillis(20))) {
+                    accepted++;
+                }
+            }
+            assertTrue(accepted <= 3, "A full lane must reject, not grow. Accepted: " + accepted);
+
+            var stats = router.stats(Lane.PAYMENT);
+            assertEquals(10 - accepted, stats.rejected());
+            assertTrue(stats.maxDepth() <= 2);
+            assertFalse(router.offer(new PaymentEvent("late", 1.0), Duration.ZERO));
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testThrowingProcessor_DoesNotStopTheLane() throws InterruptedException {
+        List<String> output = Collections.synchronizedList(new ArrayList<>());
+
+        // One worker and a lane of 4: if a failure ended the worker, submit() would block forever.
+        var router = new PriorityEventRouter(event -> {
+            if (event instanceof PaymentEvent pay && pay.amount() < 0) {
+                throw new IllegalArgumentException("negative amount");
+            }
+            return legacy.process(event);
+        }, output::add, 4, 1);
+        try {
+            for (int i = 0; i < 20; i++) {
+                router.submit(new PaymentEvent("TX-" + i, i % 2 == 0 ? -1.0 : 1.0));
+            }
+        } finally {
+            router.close(); // drains the lane before the counts are read
+        }
+
+        var payments = router.stats(Lane.PAYMENT);
+        assertEquals(20, payments.processed());
+        assertEquals(10, payments.failed());
+        assertEquals(10, output.size());
+    }
+
+    @Test
+    void testLaneOf() {
+        assertEquals(Lane.SECURITY, PriorityEventRouter.laneOf(new LoginEvent("hacker", false)));
+        assertEquals(Lane.LOGIN, PriorityEventRouter.laneOf(new LoginEvent("Alice", true)));
+        assertEquals(Lane.PAYMENT, PriorityEventRouter.laneOf(new PaymentEvent("TX", 1)));
+        assertEquals(Lane.ERROR, PriorityEventRouter.laneOf(new ErrorEvent(404, "Not Found")));
+        assertEquals(Lane.OTHER, PriorityEventRouter.laneOf("text"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
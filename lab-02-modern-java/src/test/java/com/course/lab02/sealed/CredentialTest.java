@@ -0,0 +1,108 @@
+package com.course.lab02.sealed;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CredentialTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private CredentialVerifier verifier(FaceTemplateStore faces) {
+        // Few PBKDF2 rounds keep the test fast; the logic is the same.
+        return new CredentialVerifier(1_000, 100, Duration.ofMinutes(1), faces, 0.10, now::get);
+    }
+
+    @Test
+    void testPassword_VerifiedAndCached() {
+        CredentialVerifier verifier = verifier(new FaceTemplateStore(1, 8));
+        AuthService service = new AuthService(verifier);
+        verifier.enrollPassword("alice", "secret123");
+
+        assertTrue(service.authenticate("alice", new SealedAuth.Password("secret123")));
+        assertTrue(service.authenticate("alice", new SealedAuth.Password("secret123")));
+        assertFalse(service.authenticate("alice", new SealedAuth.Password("secret124")));
+        assertFalse(service.authenticate("mallory", new SealedAuth.Password("secret123")));
+
+        assertEquals(1, verifier.getCacheHits(), "The repeated login should skip PBKDF2.");
+        assertEquals(2, verifier.getCacheMisses());
+    }
+
+    @Test
+    void testPassword_FailuresAreNeverCached() {
+        CredentialVerifier verifier = verifier(new FaceTemplateStore(1, 8));
+        verifier.enrollPassword("alice", "secret123");
+
+        // A repeated wrong guess must cost a full PBKDF2 for a known account too,
+        // or its speed would tell known accounts from unknown ones.
+        assertFalse(verifier.verifyPassword("alice", "guess"));
+        assertFalse(verifier.verifyPassword("alice", "guess"));
+        assertFalse(verifier.verifyPassword("mallory", "guess"));
+        assertFalse(verifier.verifyPassword("mallory", "guess"));
+
+        assertEquals(0, verifier.getCacheHits());
+        assertEquals(2, verifier.getCacheMisses());
+    }
+
+    @Test
+    void testPassword_CacheExpiresAndFollowsReEnrolment() {
+        CredentialVerifier verifier = verifier(new FaceTemplateStore(1, 8));
+        verifier.enrollPassword("alice", "old");
+        assertTrue(verifier.verifyPassword("alice", "old"));
+
+        verifier.enrollPassword("alice", "new");
+        assertFalse(verifier.verifyPassword("alice", "old"), "A cached result must not survive a password change.");
+        assertTrue(verifier.verifyPassword("alice", "new"));
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        long missesBefore = verifier.getCacheMisses();
+        assertTrue(verifier.verifyPassword("alice", "new"));
+        assertEquals(missesBefore + 1, verifier.getCacheMisses(), "An expired result is re-verified.");
+    }
+
+    @Test
+    void testFaceId_MatchesWithinDistance() {
+        FaceTemplateStore faces = new FaceTemplateStore(10, 64); // 512 bits, 10% = 51 bits
+        CredentialVerifier verifier = verifier(faces);
+        byte[] template = new byte[64];
+        new Random(7).nextBytes(template);
+        verifier.enrollFace("bob", template);
+
+        byte[] noisy = template.clone();
+        for (int i = 0; i < 40; i++) {
+            noisy[i] ^= 1; // 40 bits differ
+        }
+        byte[] stranger = new byte[64];
+        new Random(8).nextBytes(stranger);
+
+        AuthService service = new AuthService(verifier);
+        assertTrue(service.authenticate("bob", new SealedAuth.FaceID(template.clone())));
+        assertTrue(service.authenticate("bob", new SealedAuth.FaceID(noisy)));
+        assertFalse(service.authenticate("bob", new SealedAuth.FaceID(stranger)));
+        assertFalse(service.authenticate("carol", new SealedAuth.FaceID(template)));
+
+        assertEquals(0, faces.distance("bob", template));
+        assertEquals(40, faces.distance("bob", noisy));
+    }
+
+    @Test
+    void testFaceStore_KeepsTemplatesOffHeapAcrossSlots() {
+        FaceTemplateStore faces = new FaceTemplateStore(1_000, 128);
+        Random random = new Random(1);
+        byte[][] templates = new byte[1_000][128];
+        for (int i = 0; i < 1_000; i++) {
+            random.nextBytes(templates[i]);
+            faces.put("user" + i, templates[i]);
+        }
+
+        assertEquals(128_000, faces.offHeapBytes());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(0, faces.distance("user" + i, templates[i]));
+        }
+        assertThrows(IllegalStateException.class, () -> faces.put("one-too-many", new byte[128]));
+        assertThrows(IllegalArgumentException.class, () -> faces.distance("user1", new byte[64]));
+    }
+}
@@ -0,0 +1,126 @@
+package com.course.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Per-poll commitSync vs. OffsetCommitManager, on the same records.
+ * 1. Fills 'commit-bench' with -Drecords (default 200,000) records.
+ * 2. Reads them all twice, each time with a new consumer group:
+ *    - SYNC_PER_POLL : commitSync() after every poll (Lab 3.5)
+ *    - BATCHED       : commitAsync every -Dcommit.every records or 1s, commitSync on close
+ * max.poll.records is small (-Dmax.poll.records=100) so there are many polls,
+ * the way a consumer that keeps up with a live topic sees them.
+ * Run against the dev container broker: -Dbootstrap=localhost:29092
+ */
+public class CommitBenchmarkApp {
+    private static final Logger LOG = LoggerFactory.getLogger(CommitBenchmarkApp.class);
+
+    private static final String TOPIC = "commit-bench";
+
+    enum Mode { SYNC_PER_POLL, BATCHED }
+
+    record Result(Mode mode, long records, long polls, long commits, double seconds) {
+        @Override
+        public String toString() {
+            return String.format("%-13s %,9d records in %6.2fs = %,9.0f rec/s | %,6d polls | %,6d commits",
+                mode, records, seconds, records / seconds, polls, commits);
+        }
+    }
+
+    public static void main(String[] args) {
+        String bootstrap = System.getProperty("bootstrap", "kafka:9092");
+        long records = Long.getLong("records", 200_000);
+        int maxPollRecords = Integer.getInteger("max.poll.records", 100);
+        int commitEvery = Integer.getInteger("commit.every", 5_000);
+        LOG.info("=== Commit Benchmark === {} records, max.poll.records={}", records, maxPollRecords);
+
+        fill(bootstrap, records);
+        Result sync = consumeAll(bootstrap, records, maxPollRecords, Mode.SYNC_PER_POLL, commitEvery);
+        Result batched = consumeAll(bootstrap, records, maxPollRecords, Mode.BATCHED, commitEvery);
+        LOG.info("{}", sync);
+        LOG.info("{}", batched);
+        LOG.info("BATCHED is {}x the throughput of SYNC_PER_POLL",
+            String.format("%.1f", (batched.records() / batched.seconds()) / (sync.records() / sync.seconds())));
+    }
+
+    private static void fill(String bootstrap, long records) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(props)) {
+            for (long i = 0; i < records; i++) {
+                producer.send(new ProducerRecord<>(TOPIC, "SKU-" + (i % 100), "stock=" + i));
+            }
+            producer.flush();
+        }
+        LOG.info("Produced {} records to {}", records, TOPIC);
+    }
+
+    private static Result consumeAll(String bootstrap, long records, int maxPollRecords, Mode mode, int commitEvery) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        // A fresh group each run: both modes read the topic from the start.
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "commit-bench-" + mode + "-" + UUID.randomUUID());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        long consumed = 0;
+        long polls = 0;
+        long syncCommits = 0;
+        long start = 0;
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            // Not a try resource: in BATCHED mode its close() is part of the timed work below.
+            OffsetCommitManager commits = new OffsetCommitManager(consumer, commitEvery, Duration.ofSeconds(1));
+            consumer.subscribe(List.of(TOPIC), commits);
+            // Earlier runs may have left more records: both modes read the same first 'records'.
+            while (consumed < records) {
+                ConsumerRecords<String, String> batch = consumer.poll(Duration.ofMillis(500));
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                if (start == 0) {
+                    start = System.nanoTime(); // after the group join, which both modes pay once
+                }
+                polls++;
+                for (ConsumerRecord<String, String> record : batch) {
+                    consumed++;
+                    commits.processed(record);
+                }
+                if (mode == Mode.SYNC_PER_POLL) {
+                    consumer.commitSync();
+                    syncCommits++;
+                } else {
+                    commits.maybeCommit();
+                }
+            }
+            // close() of the manager commits the rest synchronously (included in the time).
+            // SYNC_PER_POLL has already committed everything itself after the last poll.
+            if (mode == Mode.BATCHED) {
+                commits.close();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long commitCount = mode == Mode.SYNC_PER_POLL ? syncCommits : commits.asyncCommits() + commits.syncCommits();
+            return new Result(mode, consumed, polls, commitCount, seconds);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.course.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The "Batched" Offset Commit.
+ * * PROBLEM: commitSync() after every poll (Lab 3.5, manual commit) waits a
+ * full round trip to the group coordinator each time. With small polls the
+ * consumer spends more time committing than processing.
+ * * FIX: Remember the next offset per partition as records are processed,
+ * and commit them in the background (commitAsync) every 'maxRecords'
+ * records or every 'maxInterval', whichever comes first.
+ * - A failed commitAsync is NOT retried: the next commit carries higher
+ *   offsets anyway, and a late retry could overwrite them with older ones.
+ * - Before partitions are taken away (rebalance) and on close(), the last
+ *   offsets are committed with commitSync, so nothing processed is
+ *   delivered again in the normal case.
+ * Only processed records are committed, so a crash replays at most the last
+ * batch: at-least-once, like the per-poll commitSync.
+ * * Use it as the rebalance listener and call it from the polling thread:
+ * <pre>
+ * consumer.subscribe(topics, commits);
+ * for each record: process(record); commits.processed(record);
+ * after each poll: commits.maybeCommit();
+ * on shutdown:     commits.close();
+ * </pre>
+ */
+public class OffsetCommitManager implements ConsumerRebalanceListener, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(OffsetCommitManager.class);
+
+    private final Consumer<?, ?> consumer;
+    private final int maxRecords;
+    private final long maxIntervalNanos;
+    private final LongSupplier clock;
+
+    private final Map<TopicPartition, OffsetAndMetadata> processed = new HashMap<>();
+    private final Map<TopicPartition, Long> committed = new HashMap<>();
+    private int uncommittedRecords;
+    private long lastCommit;
+
+    private final LongAdder asyncCommits = new LongAdder();
+    private final LongAdder syncCommits = new LongAdder();
+    private final LongAdder failedCommits = new LongAdder();
+
+    public OffsetCommitManager(Consumer<?, ?> consumer, int maxRecords, Duration maxInterval) {
+        this(consumer, maxRecords, maxInterval, System::nanoTime);
+    }
+
+    OffsetCommitManager(Consumer<?, ?> consumer, int maxRecords, Duration maxInterval, LongSupplier clock) {
+        if (maxRecords < 1) {
+            throw new IllegalArgumentException("maxRecords must be at least 1");
+        }
+        this.consumer = consumer;
+        this.maxRecords = maxRecords;
+        this.maxIntervalNanos = maxInterval.toNanos();
+        this.clock = clock;
+        this.lastCommit = clock.getAsLong();
+    }
+
+    /** Marks 'record' as done: its partition may be committed past it. */
+    public void processed(ConsumerRecord<?, ?> record) {
+        processed.put(new TopicPartition(record.topic(), record.partition()),
+            new OffsetAndMetadata(record.offset() + 1));
+        uncommittedRecords++;
+    }
+
+    /** Commits asynchronously if maxRecords or maxInterval has been reached. */
+    public void maybeCommit() {
+        if (uncommittedRecords >= maxRecords || clock.getAsLong() - lastCommit >= maxIntervalNanos) {
+            commitAsync();
+        }
+    }
+
+    /** The offsets that moved since the last commit. */
+    private Map<TopicPartition, OffsetAndMetadata> pending(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = processed.get(partition);
+            if (offset != null && offset.offset() > committed.getOrDefault(partition, -1L)) {
+                offsets.put(partition, offset);
+            }
+        }
+        return offsets;
+    }
+
+    private void commitAsync() {
+        lastCommit = clock.getAsLong();
+        uncommittedRecords = 0;
+        Map<TopicPartition, OffsetAndMetadata> offsets = pending(processed.keySet());
+        if (offsets.isEmpty()) {
+            return;
+        }
+        offsets.forEach((partition, offset) -> committed.put(partition, offset.offset()));
+        asyncCommits.increment();
+        consumer.commitAsync(offsets, (done, e) -> {
+            if (e != null) {
+                // Not retried: the next commit (async, or sync on rebalance/close) covers it.
+                failedCommits.increment();
+                LOG.warn("Async commit failed: {}", e.toString());
+                // Unless a newer commit was recorded since, these offsets are not committed.
+                offsets.forEach((partition, offset) -> committed.remove(partition, offset.offset()));
+            }
+        });
+    }
+
+    /** Commits the processed offsets of 'partitions' and waits for the answer. */
+    private void commitSync(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = pending(partitions);
+        if (offsets.isEmpty()) {
+            return;
+        }
+        try {
+            consumer.commitSync(offsets);
+            syncCommits.increment();
+            offsets.forEach((partition, offset) -> committed.put(partition, offset.offset()));
+        } catch (RuntimeException e) {
+            failedCommits.increment();
+            LOG.warn("Commit failed, records after {} will be delivered again", offsets, e);
+        }
+    }
+
+    // --- Rebalance and shutdown -------------------------------------------------------
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        // Last chance to commit: the new owner starts from what is committed now.
+        commitSync(partitions);
+        forget(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Collection<TopicPartition> partitions) {
+        // Already owned by someone else: a commit would be rejected.
+        forget(partitions);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        // Nothing to do: the consumer resumes from the committed offsets.
+    }
+
+    private void forget(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            processed.remove(partition);
+            committed.remove(partition);
+        }
+    }
+
+    /** Commits everything processed so far (synchronously). The consumer is not closed. */
+    @Override
+    public void close() {
+        commitSync(processed.keySet());
+        uncommittedRecords = 0;
+    }
+
+    // --- Stats ---------------------------------------------------------------------
+
+    public long asyncCommits() { return asyncCommits.sum(); }
+    public long syncCommits() { return syncCommits.sum(); }
+    public long failedCommits() { return failedCommits.sum(); }
+}
@@ -0,0 +1,301 @@
+package com.course.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The "Key-Ordered Parallel" Consumer.
+ * * PROBLEM: ConsumerApp handles the records of a poll one after another, so a
+ * partition can never go faster than one handler call at a time. A 20ms
+ * handler caps each partition at 50 records/sec, however many cores are idle.
+ * * FIX: Kafka only promises order PER KEY (a key always lands in the same
+ * partition), so only records with the same key need to wait for each other:
+ * - every record runs on a virtual thread, chained behind the previous
+ *   record with the same key (records with a null key are not chained);
+ * - per partition, the offsets still running are tracked, and the commit is
+ *   the lowest offset still running (or the next offset, if none is): the
+ *   highest offset below which EVERYTHING is done. A crash re-delivers only
+ *   unfinished work (at-least-once);
+ * - more than maxInFlight records running -> pause() the partitions (poll()
+ *   keeps the group membership alive), resume() at half of it;
+ * - on a rebalance, the revoked partitions are drained and committed with
+ *   commitSync before another consumer takes them over.
+ * * The Kafka Consumer is used from the polling thread only; handler threads
+ * just update the offset trackers.
+ */
+public class ParallelConsumer<K, V> {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelConsumer.class);
+
+    /** The per-record work. Exceptions are logged and the record counts as done. */
+    @FunctionalInterface
+    public interface RecordHandler<K, V> {
+        void handle(ConsumerRecord<K, V> record) throws Exception;
+    }
+
+    /** Offsets of one partition that were handed out but are not finished yet. */
+    private static final class PartitionTracker {
+        private final TreeSet<Long> running = new TreeSet<>();
+        private long next = -1;
+
+        synchronized void started(long offset) {
+            running.add(offset);
+            next = offset + 1;
+        }
+
+        synchronized void finished(long offset) {
+            running.remove(offset);
+        }
+
+        /** The offset to commit: everything before it is done (-1 if nothing was started). */
+        synchronized long safeOffset() {
+            return running.isEmpty() ? next : running.first();
+        }
+
+        synchronized boolean idle() {
+            return running.isEmpty();
+        }
+    }
+
+    private final Consumer<K, V> consumer;
+    private final RecordHandler<K, V> handler;
+    private final int maxInFlight;
+    private final Duration commitInterval;
+
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Object, CompletableFuture<Void>> chains = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, PartitionTracker> trackers = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, Long> committed = new HashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running = true;
+    private volatile boolean paused;
+    private long lastCommit = System.nanoTime();
+
+    public ParallelConsumer(Consumer<K, V> consumer, RecordHandler<K, V> handler,
+                            int maxInFlight, Duration commitInterval) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.consumer = consumer;
+        this.handler = handler;
+        this.maxInFlight = maxInFlight;
+        this.commitInterval = commitInterval;
+    }
+
+    /**
+     * Subscribes and polls until stop() is called, then drains the running
+     * records (up to 'drainTimeout') and commits. Handlers still running after
+     * that are interrupted; their records are delivered again. The consumer is
+     * not closed.
+     */
+    public void run(Collection<String> topics, Duration drainTimeout) {
+        consumer.subscribe(topics, new RebalanceListener());
+        try {
+            while (running) {
+                ConsumerRecords<K, V> records = consumer.poll(Duration.ofMillis(100));
+                for (ConsumerRecord<K, V> record : records) {
+                    dispatch(record);
+                }
+                applyBackpressure();
+                if (System.nanoTime() - lastCommit >= commitInterval.toNanos()) {
+                    commitAsync();
+                }
+            }
+        } catch (WakeupException e) {
+            // stop() was called while poll() was waiting.
+        } finally {
+            awaitIdle(trackers.keySet(), drainTimeout);
+            commitSync(trackers.keySet());
+            shutdownWorkers();
+        }
+    }
+
+    /** Unlike workers.close(), never waits for a handler that is stuck. */
+    private void shutdownWorkers() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+                LOG.warn("{} record(s) still running after the drain timeout, interrupting them", inFlight.get());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Ends run(); safe to call from any thread (e.g. a shutdown hook). */
+    public void stop() {
+        running = false;
+        consumer.wakeup();
+    }
+
+    private void dispatch(ConsumerRecord<K, V> record) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        PartitionTracker tracker = trackers.computeIfAbsent(partition, p -> new PartitionTracker());
+        tracker.started(record.offset());
+        inFlight.incrementAndGet();
+
+        Runnable task = () -> {
+            try {
+                handler.handle(record);
+                processed.increment();
+            } catch (Exception e) {
+                failed.increment();
+                LOG.error("Handler failed at {}-{}@{}", record.topic(), record.partition(), record.offset(), e);
+            } finally {
+                tracker.finished(record.offset());
+                inFlight.decrementAndGet();
+            }
+        };
+
+        K key = record.key();
+        if (key == null) {
+            workers.execute(task);
+            return;
+        }
+        // Same key: run after the previous record with that key, never alongside it.
+        CompletableFuture<Void> next = chains.compute(key, (k, previous) -> previous == null
+            ? CompletableFuture.runAsync(task, workers)
+            : previous.handleAsync((ignored, error) -> {
+                task.run();
+                return null;
+            }, workers));
+        next.whenComplete((ignored, error) -> chains.remove(key, next));
+    }
+
+    private void applyBackpressure() {
+        int current = inFlight.get();
+        if (!paused && current >= maxInFlight) {
+            consumer.pause(consumer.assignment());
+            paused = true;
+        } else if (paused && current <= maxInFlight / 2) {
+            consumer.resume(consumer.paused());
+            paused = false;
+        }
+    }
+
+    // --- Commits -------------------------------------------------------------------
+
+    private Map<TopicPartition, OffsetAndMetadata> safeOffsets(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            PartitionTracker tracker = trackers.get(partition);
+            long safe = tracker == null ? -1 : tracker.safeOffset();
+            if (safe > committed.getOrDefault(partition, -1L)) {
+                offsets.put(partition, new OffsetAndMetadata(safe));
+            }
+        }
+        return offsets;
+    }
+
+    private void commitAsync() {
+        lastCommit = System.nanoTime();
+        Map<TopicPartition, OffsetAndMetadata> offsets = safeOffsets(trackers.keySet());
+        if (offsets.isEmpty()) {
+            return;
+        }
+        offsets.forEach((partition, offset) -> committed.put(partition, offset.offset()));
+        consumer.commitAsync(offsets, (done, e) -> {
+            if (e != null) {
+                // Not retried: the next commit (async, or sync on rebalance/stop) covers it,
+                // as long as these offsets no longer count as committed.
+                LOG.warn("Async commit failed: {}", e.toString());
+                offsets.forEach((partition, offset) -> committed.remove(partition, offset.offset()));
+            }
+        });
+    }
+
+    private void commitSync(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = safeOffsets(partitions);
+        if (offsets.isEmpty()) {
+            return;
+        }
+        try {
+            try {
+                consumer.commitSync(offsets);
+            } catch (WakeupException e) {
+                // stop() was called outside poll(): its wakeup was still pending. It is used up now.
+                consumer.commitSync(offsets);
+            }
+            offsets.forEach((partition, offset) -> committed.put(partition, offset.offset()));
+        } catch (RuntimeException e) {
+            LOG.warn("Commit failed, these records will be delivered again: {}", offsets, e);
+        }
+    }
+
+    /** Waits until the partitions have nothing running, or the timeout passes. */
+    private void awaitIdle(Collection<TopicPartition> partitions, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (TopicPartition partition : partitions) {
+            PartitionTracker tracker = trackers.get(partition);
+            while (tracker != null && !tracker.idle() && System.nanoTime() < deadline) {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private final class RebalanceListener implements ConsumerRebalanceListener {
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            // Finish what we started and commit it, so the next owner starts where we stopped.
+            awaitIdle(partitions, Duration.ofSeconds(10));
+            commitSync(partitions);
+            forget(partitions);
+        }
+
+        @Override
+        public void onPartitionsLost(Collection<TopicPartition> partitions) {
+            // Already owned by someone else: committing would fail.
+            forget(partitions);
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            if (paused) {
+                consumer.pause(partitions);
+            }
+        }
+
+        private void forget(Collection<TopicPartition> partitions) {
+            for (TopicPartition partition : partitions) {
+                trackers.remove(partition);
+                committed.remove(partition);
+            }
+        }
+    }
+
+    // --- Stats ---------------------------------------------------------------------
+
+    public long processed() { return processed.sum(); }
+    public long failed() { return failed.sum(); }
+    public int inFlight() { return inFlight.get(); }
+    public boolean paused() { return paused; }
+}
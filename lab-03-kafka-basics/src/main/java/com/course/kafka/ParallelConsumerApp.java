@@ -0,0 +1,73 @@
+package com.course.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConsumerApp with a slow handler (-Dhandler.ms=20, e.g. a REST call per trade),
+ * processed by a ParallelConsumer. Compare the rec/s with -Dmax.in.flight=1
+ * (one record at a time) and -Dmax.in.flight=5000: throughput follows handler
+ * concurrency, not the number of partitions.
+ * Feed it with ThroughputProducerApp (-Dtopic=stock-prices).
+ */
+public class ParallelConsumerApp {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelConsumerApp.class);
+
+    public static void main(String[] args) throws InterruptedException {
+        String bootstrap = System.getProperty("bootstrap", "kafka:9092");
+        String topic = System.getProperty("topic", "stock-prices");
+        long handlerMs = Long.getLong("handler.ms", 20);
+        int maxInFlight = Integer.getInteger("max.in.flight", 5_000);
+        LOG.info("=== Starting Parallel Consumer === handler={}ms maxInFlight={}", handlerMs, maxInFlight);
+
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "parallel-group");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); // ParallelConsumer commits what is done
+
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            ParallelConsumer<String, String> parallel = new ParallelConsumer<>(consumer,
+                record -> Thread.sleep(handlerMs), maxInFlight, Duration.ofSeconds(1));
+
+            Thread main = Thread.currentThread();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                parallel.stop();
+                try {
+                    main.join();
+                } catch (InterruptedException ignored) {
+                    // exiting anyway
+                }
+            }));
+
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "parallel-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long[] last = {0};
+            reporter.scheduleAtFixedRate(() -> {
+                long processed = parallel.processed();
+                LOG.info("{} rec/s | in-flight {} | paused {} | failed {}",
+                    processed - last[0], parallel.inFlight(), parallel.paused(), parallel.failed());
+                last[0] = processed;
+            }, 1, 1, TimeUnit.SECONDS);
+
+            parallel.run(List.of(topic), Duration.ofSeconds(30));
+            reporter.shutdownNow();
+        }
+        LOG.info("Consumer closed.");
+    }
+}
@@ -0,0 +1,274 @@
+package com.course.kafka;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * The "Spillover" Log: an append-only, memory-mapped queue of Kafka records on local disk.
+ * * Records go into fixed-size segment files (00000000000000000000.seg, ...1.seg, ...).
+ * Each segment is mapped once, so an append is a memory copy: no system call,
+ * no fsync. The data is in the OS page cache, so it survives a crash of the
+ * JVM. It does NOT survive a power loss unless force() is called.
+ * * Record layout: [int length][int crc32c][short keyLength][key][value]
+ * - length is written LAST, so a reader (or a restart) never sees half a record;
+ * - keyLength -1 means a null key;
+ * - length -1 marks "rest of this segment unused, continue in the next one".
+ * * One reader drains the log in order and calls acknowledge(position) once the
+ * records are safe in Kafka. The position is saved to 'checkpoint' (write, then
+ * rename), and fully read segments are deleted.
+ */
+final class SegmentLog implements AutoCloseable {
+
+    private static final int HEADER = Integer.BYTES + Integer.BYTES + Short.BYTES;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SUFFIX = ".seg";
+    private static final String CHECKPOINT = "checkpoint";
+
+    /** Where a record starts: segment number and byte offset in it. */
+    record Position(long segment, int offset) {}
+
+    /** One record plus the position right after it (what to acknowledge). */
+    record Entry(String key, byte[] value, Position next) {}
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private final CRC32C crc = new CRC32C();
+
+    private long writeSegment;
+    private int writeOffset;
+    private Position checkpoint;
+
+    SegmentLog(Path directory, int segmentBytes) {
+        if (segmentBytes < 1024) {
+            throw new IllegalArgumentException("segmentBytes must be at least 1024");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open spillover log " + directory, e);
+        }
+    }
+
+    // --- Opening -----------------------------------------------------------------
+
+    private void recover() throws IOException {
+        List<Long> existing = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith(SUFFIX))
+                .forEach(name -> existing.add(Long.parseLong(name.substring(0, name.length() - SUFFIX.length()))));
+        }
+        existing.sort(null);
+        checkpoint = readCheckpoint();
+        for (long segment : existing) {
+            if (segment >= checkpoint.segment()) {
+                segments.put(segment, map(segment));
+            } else {
+                Files.deleteIfExists(segmentPath(segment)); // read before the last run ended
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(checkpoint.segment(), map(checkpoint.segment()));
+        }
+        if (checkpoint.segment() < segments.firstKey()) {
+            checkpoint = new Position(segments.firstKey(), 0);
+        }
+        writeSegment = segments.lastKey();
+        writeOffset = scanToEnd(segments.get(writeSegment));
+    }
+
+    /** Finds the end of the last complete record and clears anything torn after it. */
+    private int scanToEnd(MappedByteBuffer buffer) {
+        int offset = 0;
+        while (offset + HEADER <= segmentBytes) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER + length - Short.BYTES > segmentBytes
+                    || buffer.getInt(offset + Integer.BYTES) != checksum(buffer, offset, length)) {
+                break;
+            }
+            offset += HEADER - Short.BYTES + length;
+        }
+        // A crash in the middle of an append can leave bytes after the end: zero them,
+        // so they can never be mistaken for a record once new appends overwrite part of them.
+        for (int i = offset; i < segmentBytes; i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        return offset;
+    }
+
+    private MappedByteBuffer map(long segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed.
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%020d%s", segment, SUFFIX));
+    }
+
+    private Position readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT);
+        if (!Files.exists(file)) {
+            return new Position(0, 0);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        return new Position(bytes.getLong(), bytes.getInt());
+    }
+
+    // --- Writing -----------------------------------------------------------------
+
+    /** Appends one record; rolls to a new segment when the current one is full. */
+    synchronized void append(String key, byte[] value) {
+        byte[] keyBytes = key == null ? null : key.getBytes(StandardCharsets.UTF_8);
+        int keyLength = keyBytes == null ? 0 : keyBytes.length;
+        if (keyLength > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Key longer than " + Short.MAX_VALUE + " bytes");
+        }
+        int length = Short.BYTES + keyLength + value.length;
+        int recordBytes = HEADER - Short.BYTES + length;
+        if (recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + recordBytes + " bytes does not fit a segment");
+        }
+        if (writeOffset + recordBytes > segmentBytes) {
+            roll();
+        }
+        MappedByteBuffer buffer = segments.get(writeSegment);
+        int offset = writeOffset;
+        buffer.putShort(offset + 2 * Integer.BYTES, (short) (keyBytes == null ? -1 : keyLength));
+        if (keyBytes != null) {
+            buffer.put(offset + HEADER, keyBytes);
+        }
+        buffer.put(offset + HEADER + keyLength, value);
+        buffer.putInt(offset + Integer.BYTES, checksum(buffer, offset, length));
+        buffer.putInt(offset, length); // last: the record now exists
+        writeOffset += recordBytes;
+    }
+
+    private void roll() {
+        MappedByteBuffer current = segments.get(writeSegment);
+        if (writeOffset + Integer.BYTES <= segmentBytes) {
+            current.putInt(writeOffset, END_OF_SEGMENT);
+        }
+        try {
+            writeSegment++;
+            segments.put(writeSegment, map(writeSegment));
+            writeOffset = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create segment " + writeSegment, e);
+        }
+    }
+
+    /** CRC of [keyLength][key][value] of the record at 'offset'. */
+    private int checksum(ByteBuffer buffer, int offset, int length) {
+        crc.reset();
+        crc.update(buffer.slice(offset + 2 * Integer.BYTES, length));
+        return (int) crc.getValue();
+    }
+
+    // --- Reading -----------------------------------------------------------------
+
+    /** Position of the first record not yet acknowledged. */
+    synchronized Position checkpoint() {
+        return checkpoint;
+    }
+
+    /** The record at 'from', or null if the writer has not got that far yet. */
+    synchronized Entry read(Position from) {
+        Position position = from;
+        while (true) {
+            MappedByteBuffer buffer = segments.get(position.segment());
+            if (buffer == null) {
+                return null; // past the end (or already deleted)
+            }
+            int offset = position.offset();
+            boolean atWriteEnd = position.segment() == writeSegment && offset >= writeOffset;
+            if (atWriteEnd) {
+                return null;
+            }
+            int length = offset + Integer.BYTES <= segmentBytes ? buffer.getInt(offset) : END_OF_SEGMENT;
+            if (length <= 0) {
+                position = new Position(position.segment() + 1, 0);
+                continue;
+            }
+            short keyLength = buffer.getShort(offset + 2 * Integer.BYTES);
+            int keyBytes = Math.max(0, keyLength);
+            String key = null;
+            if (keyLength >= 0) {
+                byte[] k = new byte[keyBytes];
+                buffer.get(offset + HEADER, k);
+                key = new String(k, StandardCharsets.UTF_8);
+            }
+            byte[] value = new byte[length - Short.BYTES - keyBytes];
+            buffer.get(offset + HEADER + keyBytes, value);
+            return new Entry(key, value, new Position(position.segment(), offset + HEADER - Short.BYTES + length));
+        }
+    }
+
+    /** True if every appended record has been acknowledged. */
+    synchronized boolean isDrained() {
+        return read(checkpoint) == null;
+    }
+
+    /**
+     * Records before 'upTo' are safe elsewhere: save the position and delete
+     * the segments that are now fully read.
+     */
+    synchronized void acknowledge(Position upTo) {
+        checkpoint = upTo;
+        Path file = directory.resolve(CHECKPOINT);
+        Path temp = directory.resolve(CHECKPOINT + ".tmp");
+        try {
+            ByteBuffer bytes = ByteBuffer.allocate(Long.BYTES + Integer.BYTES).putLong(upTo.segment()).putInt(upTo.offset());
+            Files.write(temp, bytes.array());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save spillover checkpoint", e);
+        }
+        Map<Long, MappedByteBuffer> done = segments.headMap(Math.min(upTo.segment(), writeSegment));
+        for (long segment : List.copyOf(done.keySet())) {
+            segments.remove(segment);
+            try {
+                Files.deleteIfExists(segmentPath(segment));
+            } catch (IOException e) {
+                // Still mapped on some platforms: it is deleted on the next open instead.
+            }
+        }
+    }
+
+    /** Number of segment files currently kept (a rough measure of the backlog). */
+    synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    /** Flushes the written pages to disk (for power-loss durability). */
+    synchronized void force() {
+        segments.get(writeSegment).force();
+    }
+
+    @Override
+    public synchronized void close() {
+        force();
+    }
+}
@@ -0,0 +1,285 @@
+package com.course.kafka;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.RetriableException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The "Never Block" Producer: Kafka when it is up, a local SegmentLog when it is not.
+ * * PROBLEM: With the broker down, send() blocks for max.block.ms (60s by
+ * default) waiting for metadata or buffer space, or the records expire after
+ * delivery.timeout.ms. Either way the calling service stalls or loses data.
+ * * FIX:
+ * - max.block.ms is small, so send() gives up fast instead of stalling;
+ * - a record that cannot be handed over (send() throws, or the callback
+ *   reports a retriable error) is appended to the SegmentLog, which takes
+ *   about a microsecond;
+ * - while the log holds anything, new records go to the log too, behind
+ *   the older ones, so the replay keeps their order;
+ * - a replayer thread drains the log in order once the broker answers again,
+ *   and acknowledges only what Kafka has confirmed;
+ * - direct sending resumes only when the log is empty AND no direct send is
+ *   still in flight, so a late failure cannot land behind newer direct records.
+ * * Ordering caveat: a record already in flight when the first failure is seen
+ * is spilled when ITS callback fails, so it can end up in the log behind
+ * records sent after that first failure (F1 fails, N1 is spilled, F2 fails).
+ * Within one partition the producer fails a stuck batch and everything queued
+ * behind it together, so this mostly reorders records of different keys.
+ * * enable.idempotence + acks=all: the producer's own retries during a
+ * flaky connection never write a record twice. If the replayer has to
+ * resend a batch it could not confirm, records may repeat (at-least-once):
+ * consumers should treat the record key + payload as the identity.
+ */
+public class SpilloverProducer implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(SpilloverProducer.class);
+
+    private static final int REPLAY_BATCH = 1_000;
+    private static final long MAX_BACKOFF_MS = 5_000;
+
+    private final Producer<String, byte[]> producer;
+    private final SegmentLog log;
+    private final String topic;
+    private final Thread replayer;
+    private final Object lock = new Object();
+
+    private volatile boolean spilling;
+    private volatile boolean closed;
+    // Direct sends whose callback has not run yet (guarded by 'lock' for the 0 -> 1 step).
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /** Producer settings for the direct path; maxBlockMs bounds how long send() may wait. */
+    public static Properties producerProperties(String bootstrap, long maxBlockMs) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5); // the most idempotence allows
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        // Fail a stuck batch after 10s so it is spilled, instead of holding it for 2 minutes.
+        props.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 5_000);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 10_000);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        return props;
+    }
+
+    public SpilloverProducer(Properties props, String topic, SegmentLog log) {
+        this(new KafkaProducer<>(props), topic, log);
+    }
+
+    SpilloverProducer(Producer<String, byte[]> producer, String topic, SegmentLog log) {
+        this.producer = producer;
+        this.topic = topic;
+        this.log = log;
+        // Records left over from the last run go first.
+        this.spilling = !log.isDrained();
+        this.replayer = Thread.ofPlatform().name("spillover-replayer").daemon().start(this::replayLoop);
+    }
+
+    /**
+     * Hands the record to Kafka, or to the local log if Kafka cannot take it now.
+     * Never waits longer than max.block.ms, and does not wait at all while spilling.
+     */
+    public void send(String key, byte[] value) {
+        if (closed) {
+            throw new IllegalStateException("Producer is closed");
+        }
+        synchronized (lock) {
+            if (spilling) {
+                log.append(key, value);
+                spilled.increment();
+                return;
+            }
+            inFlight.incrementAndGet();
+        }
+        try {
+            producer.send(new ProducerRecord<>(topic, key, value), (metadata, e) -> {
+                if (e == null) {
+                    sent.increment();
+                } else {
+                    onFailure(key, value, e);
+                }
+                inFlight.decrementAndGet(); // after a spilled record is in the log
+            });
+        } catch (RuntimeException e) {
+            // max.block.ms ran out (no metadata, full buffer) or the producer failed.
+            // KafkaProducer does not call the callback when send() throws.
+            onFailure(key, value, e);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void onFailure(String key, byte[] value, Exception e) {
+        if (!(e instanceof RetriableException)) {
+            // Too large, not authorized, ...: trying again later would fail the same way.
+            dropped.increment();
+            LOG.error("Dropping record key={}: {}", key, e.toString());
+            return;
+        }
+        synchronized (lock) {
+            if (!spilling) {
+                LOG.warn("Broker unavailable ({}), spilling to the local log", e.getClass().getSimpleName());
+            }
+            spilling = true;
+            log.append(key, value);
+            spilled.increment();
+        }
+    }
+
+    // --- Replay --------------------------------------------------------------------
+
+    private void replayLoop() {
+        long backoffMs = 100;
+        while (!closed) {
+            try {
+                if (!spilling) {
+                    TimeUnit.MILLISECONDS.sleep(50);
+                    continue;
+                }
+                if (replayBatch()) {
+                    backoffMs = 100;
+                } else {
+                    TimeUnit.MILLISECONDS.sleep(backoffMs);
+                    backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                LOG.error("Replay failed", e);
+            }
+        }
+    }
+
+    /**
+     * Sends up to REPLAY_BATCH records from the checkpoint and acknowledges the
+     * confirmed prefix. Returns false if the broker did not take all of them.
+     */
+    private boolean replayBatch() throws InterruptedException {
+        SegmentLog.Position from = log.checkpoint();
+        List<Future<RecordMetadata>> results = new ArrayList<>();
+        List<SegmentLog.Position> ends = new ArrayList<>();
+        SegmentLog.Position position = from;
+        boolean sendFailed = false;
+        for (int i = 0; i < REPLAY_BATCH; i++) {
+            SegmentLog.Entry entry = log.read(position);
+            if (entry == null) {
+                break;
+            }
+            try {
+                results.add(producer.send(new ProducerRecord<>(topic, entry.key(), entry.value())));
+            } catch (RuntimeException e) {
+                sendFailed = true; // still down: max.block.ms ran out
+                break;
+            }
+            ends.add(entry.next());
+            position = entry.next();
+        }
+        if (results.isEmpty()) {
+            return !sendFailed && finishIfDrained(from);
+        }
+        producer.flush();
+
+        // Acknowledge up to the last record of the unbroken run of successes.
+        SegmentLog.Position confirmed = null;
+        boolean allConfirmed = true;
+        for (int i = 0; i < results.size(); i++) {
+            if (!confirmed(results.get(i))) {
+                allConfirmed = false;
+                break;
+            }
+            confirmed = ends.get(i);
+            replayed.increment();
+        }
+        if (confirmed != null) {
+            log.acknowledge(confirmed);
+        }
+        return allConfirmed && !sendFailed && finishIfDrained(log.checkpoint());
+    }
+
+    private boolean confirmed(Future<RecordMetadata> result) throws InterruptedException {
+        try {
+            result.get(30, TimeUnit.SECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RetriableException) {
+                return false;
+            }
+            dropped.increment(); // never going to succeed: skip it
+            LOG.error("Dropping replayed record: {}", e.getCause().toString());
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Back to the direct path, but only if nothing was spilled in the meantime
+     * and no direct send can still fail into the log. Returns false (back off)
+     * while the log is empty but direct sends are still in flight.
+     */
+    private boolean finishIfDrained(SegmentLog.Position from) {
+        synchronized (lock) {
+            if (log.read(from) != null) {
+                return true;
+            }
+            if (inFlight.get() > 0) {
+                return false;
+            }
+            if (spilling) {
+                LOG.info("Spillover log drained, sending directly again");
+            }
+            spilling = false;
+        }
+        return true;
+    }
+
+    // --- Stats ---------------------------------------------------------------------
+
+    public boolean spilling() { return spilling; }
+    public long sent() { return sent.sum(); }
+    public long spilled() { return spilled.sum(); }
+    public long replayed() { return replayed.sum(); }
+    public long dropped() { return dropped.sum(); }
+    public int spillSegments() { return log.segmentCount(); }
+
+    /**
+     * Stops the replayer and flushes what Kafka accepted. Records still in the
+     * log stay on disk and are replayed by the next SpilloverProducer on it.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        replayer.interrupt();
+        try {
+            replayer.join(Duration.ofSeconds(10).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        producer.close(Duration.ofSeconds(10));
+        log.close();
+    }
+}
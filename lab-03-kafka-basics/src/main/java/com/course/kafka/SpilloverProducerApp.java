@@ -0,0 +1,54 @@
+package com.course.kafka;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Try the SpilloverProducer through a broker restart:
+ * 1. Run this app (it sends ~2,000 ticks/sec for 2 minutes).
+ * 2. docker stop kafka-broker   -> "spilling" turns true, send() stays in µs.
+ * 3. docker start kafka-broker  -> the replayer drains the log, spilling turns false.
+ * Settings: -Dbootstrap=localhost:29092 -Dspill.dir=target/spill -Dseconds=120
+ */
+public class SpilloverProducerApp {
+    private static final Logger LOG = LoggerFactory.getLogger(SpilloverProducerApp.class);
+
+    private static final String[] TICKERS = {"AAPL", "GOOGL", "MSFT", "TSLA", "AMZN", "NFLX"};
+
+    public static void main(String[] args) throws InterruptedException {
+        String bootstrap = System.getProperty("bootstrap", "kafka:9092");
+        Path spillDir = Path.of(System.getProperty("spill.dir", "target/spill"));
+        long seconds = Long.getLong("seconds", 120);
+        LOG.info("=== Starting Spillover Producer === bootstrap={} spill={}", bootstrap, spillDir.toAbsolutePath());
+
+        SegmentLog log = new SegmentLog(spillDir, 64 * 1024 * 1024);
+        try (SpilloverProducer producer = new SpilloverProducer(
+                SpilloverProducer.producerProperties(bootstrap, 50), "stock-prices", log)) {
+            LatencyRecorder sendLatency = new LatencyRecorder();
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            long nextReport = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            for (long seq = 0; System.nanoTime() < end; seq++) {
+                String ticker = TICKERS[(int) (seq % TICKERS.length)];
+                byte[] value = (ticker + "," + (100 + seq % 500) + "," + seq).getBytes(StandardCharsets.US_ASCII);
+
+                long start = System.nanoTime();
+                producer.send(ticker, value);
+                sendLatency.recordNanos(System.nanoTime() - start);
+
+                if (System.nanoTime() >= nextReport) {
+                    LOG.info("spilling={} | sent {} | spilled {} | replayed {} | dropped {} | segments {} | send() {}",
+                        producer.spilling(), producer.sent(), producer.spilled(), producer.replayed(),
+                        producer.dropped(), producer.spillSegments(), sendLatency.summary());
+                    sendLatency = new LatencyRecorder();
+                    nextReport += TimeUnit.SECONDS.toNanos(1);
+                }
+                TimeUnit.MICROSECONDS.sleep(500);
+            }
+        }
+        LOG.info("Done. Records still spilled are replayed on the next run.");
+    }
+}
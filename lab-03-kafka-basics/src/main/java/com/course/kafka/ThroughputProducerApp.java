@@ -0,0 +1,186 @@
+package com.course.kafka;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The "High-Throughput" Producer (market ticks at 100k+ records/sec).
+ * * PROBLEM: ProducerApp sends with the defaults: linger.ms=0 ships a request
+ * as soon as one record is ready, batches stay tiny and uncompressed, and a
+ * loop that waits for every ack does one network round trip per record.
+ * * FIX:
+ * - linger.ms + batch.size : let records accumulate into large batches
+ * - compression.type       : compress whole batches (lz4 is cheap on CPU)
+ * - async send + callback  : never wait for an ack in the send loop
+ * - Semaphore              : at most 'maxInFlight' unacknowledged records,
+ *   so a slow broker slows the loop down instead of filling the heap
+ * A reporter logs records/sec, bytes/sec and send-to-ack latency every second,
+ * plus the first send failure of that second (not one line per failed record).
+ * * Settings are system properties, e.g.
+ *   -Dbootstrap=localhost:29092 -Drecords=2000000 -Dlinger.ms=20
+ *   -Dbatch.size=262144 -Dcompression=lz4 -Dmax.in.flight=50000
+ * It runs against the single-node KRaft broker of the dev container
+ * (kafka:9092 inside the container network, localhost:29092 from the host).
+ */
+public class ThroughputProducerApp {
+    private static final Logger LOG = LoggerFactory.getLogger(ThroughputProducerApp.class);
+
+    private static final String[] TICKERS = {
+        "AAPL", "GOOGL", "MSFT", "TSLA", "AMZN", "NFLX", "META", "NVDA",
+        "ORCL", "IBM", "INTC", "AMD", "UBER", "ABNB", "PYPL"
+    };
+
+    record Settings(String bootstrap, String topic, long records, int lingerMs, int batchSize,
+                    String compression, int maxInFlight) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                System.getProperty("bootstrap", "kafka:9092"),
+                System.getProperty("topic", "market-ticks"),
+                Long.getLong("records", 1_000_000),
+                Integer.getInteger("linger.ms", 20),
+                Integer.getInteger("batch.size", 256 * 1024),
+                System.getProperty("compression", "lz4"),
+                Integer.getInteger("max.in.flight", 50_000));
+        }
+
+        Properties producerProperties() {
+            Properties props = new Properties();
+            props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+            props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+            props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+            props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+            props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+            props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+            props.put(ProducerConfig.ACKS_CONFIG, "1"); // ticks: leader ack is enough
+            // Room for every in-flight record, so send() never blocks on buffer space first.
+            props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, Math.max(64L * 1024 * 1024, (long) batchSize * 256));
+            return props;
+        }
+    }
+
+    private final Settings settings;
+    private final Semaphore inFlight;
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder ackedBytes = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicReference<Exception> firstFailure = new AtomicReference<>();
+    private final LatencyRecorder totalLatency = new LatencyRecorder();
+    private final AtomicReference<LatencyRecorder> intervalLatency = new AtomicReference<>(new LatencyRecorder());
+
+    public ThroughputProducerApp(Settings settings) {
+        this.settings = settings;
+        this.inFlight = new Semaphore(settings.maxInFlight());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Settings settings = Settings.fromSystemProperties();
+        LOG.info("=== Starting Throughput Producer === {}", settings);
+        new ThroughputProducerApp(settings).run();
+    }
+
+    public void run() throws InterruptedException {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "throughput-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try (KafkaProducer<String, byte[]> producer = new KafkaProducer<>(settings.producerProperties())) {
+            reporter.scheduleAtFixedRate(new Reporter(), 1, 1, TimeUnit.SECONDS);
+            sendAll(producer);
+            producer.flush();
+            // Callbacks of the last batch may still be running: wait for every permit.
+            inFlight.acquire(settings.maxInFlight());
+            inFlight.release(settings.maxInFlight());
+        } finally {
+            reporter.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        LOG.info("DONE: {} acked, {} failed in {}s -> {} rec/s, {} MB/s | ack latency {}",
+            acked.sum(), failed.sum(), String.format("%.2f", seconds),
+            Math.round(acked.sum() / seconds), String.format("%.1f", ackedBytes.sum() / seconds / 1e6),
+            totalLatency.summary());
+        Exception failure = firstFailure.getAndSet(null);
+        if (failure != null) {
+            LOG.warn("First send failure of the last second: {}", failure.toString());
+        }
+    }
+
+    private void sendAll(KafkaProducer<String, byte[]> producer) throws InterruptedException {
+        StringBuilder tick = new StringBuilder(64);
+        for (long seq = 0; seq < settings.records(); seq++) {
+            String symbol = TICKERS[(int) (seq % TICKERS.length)];
+            tick.setLength(0);
+            tick.append(symbol).append(',').append(100 + seq % 5_000 / 100.0).append(',').append(seq);
+            byte[] value = tick.toString().getBytes(StandardCharsets.US_ASCII);
+
+            inFlight.acquire();
+            long sentAt = System.nanoTime();
+            try {
+                producer.send(new ProducerRecord<>(settings.topic(), symbol, value), (metadata, e) -> {
+                    // Runs on the producer I/O thread: count and release, nothing slow.
+                    long latency = System.nanoTime() - sentAt;
+                    if (e != null) {
+                        failed.increment();
+                        firstFailure.compareAndSet(null, e); // the reporter logs it
+                    } else {
+                        acked.increment();
+                        ackedBytes.add(metadata.serializedKeySize() + metadata.serializedValueSize());
+                        totalLatency.recordNanos(latency);
+                        intervalLatency.get().recordNanos(latency);
+                    }
+                    inFlight.release();
+                });
+            } catch (RuntimeException e) {
+                // send() itself failed (e.g. serialization or max.block.ms): no callback will come.
+                inFlight.release();
+                failed.increment();
+                LOG.error("Send failed for seq {}", seq, e);
+            }
+        }
+    }
+
+    /** Logs the last second: rates from counter deltas, latency from a fresh histogram. */
+    private final class Reporter implements Runnable {
+        private long lastAcked;
+        private long lastBytes;
+        private long lastTime = System.nanoTime();
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            long ackedNow = acked.sum();
+            long bytesNow = ackedBytes.sum();
+            double seconds = (now - lastTime) / 1e9;
+            LatencyRecorder interval = intervalLatency.getAndSet(new LatencyRecorder());
+            LOG.info("{} rec/s | {} MB/s | in-flight {} | failed {} | ack {}",
+                Math.round((ackedNow - lastAcked) / seconds),
+                String.format("%.1f", (bytesNow - lastBytes) / seconds / 1e6),
+                settings.maxInFlight() - inFlight.availablePermits(),
+                failed.sum(),
+                interval.summary());
+            Exception failure = firstFailure.getAndSet(null);
+            if (failure != null) {
+                LOG.warn("First send failure of the last second: {}", failure.toString());
+            }
+            lastAcked = ackedNow;
+            lastBytes = bytesNow;
+            lastTime = now;
+        }
+    }
+}
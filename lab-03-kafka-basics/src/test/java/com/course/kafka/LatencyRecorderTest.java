@@ -0,0 +1,64 @@
+package com.course.kafka;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyRecorderTest {
+
+    private static final int LAST = LatencyRecorder.indexOf(Long.MAX_VALUE);
+
+    @Test
+    void testSmallValues_HaveTheirOwnBucket() {
+        for (int micros = 0; micros < 16; micros++) {
+            assertEquals(micros, LatencyRecorder.indexOf(micros));
+            assertEquals(micros, LatencyRecorder.highestValueIn(micros));
+        }
+        // 16µs starts the first split power of two: 16..31 in 16 buckets of 1µs.
+        assertEquals(16, LatencyRecorder.indexOf(16));
+        assertEquals(31, LatencyRecorder.indexOf(31));
+        assertEquals(32, LatencyRecorder.indexOf(32));
+        assertEquals(33, LatencyRecorder.indexOf(34)); // 32..63: buckets of 2µs
+        assertEquals(35, LatencyRecorder.highestValueIn(33));
+    }
+
+    @Test
+    void testBucketBoundaries_AreConsistent() {
+        for (int i = 0; i < LAST; i++) {
+            long highest = LatencyRecorder.highestValueIn(i);
+            assertEquals(i, LatencyRecorder.indexOf(highest), "highest value of bucket " + i);
+            assertEquals(i + 1, LatencyRecorder.indexOf(highest + 1), "first value after bucket " + i);
+        }
+    }
+
+    @Test
+    void testLargeValues_LandInTheLastBucket() {
+        long twoPow32 = 1L << 32;
+        assertEquals(LAST - 15, LatencyRecorder.indexOf(twoPow32), "2^32µs is still covered");
+        assertEquals(LAST, LatencyRecorder.indexOf((1L << 33) - 1));
+        assertEquals(LAST, LatencyRecorder.indexOf(1L << 33));
+        assertEquals((1L << 33) - 1, LatencyRecorder.highestValueIn(LAST));
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.recordMicros(Long.MAX_VALUE);
+        recorder.recordMicros(-5); // clock went backwards: counted as 0
+        assertEquals(2, recorder.count());
+        assertEquals(0, recorder.percentile(50));
+        assertEquals((1L << 33) - 1, recorder.percentile(100));
+    }
+
+    @Test
+    void testPercentiles_AreWithinOneBucketOfTheTruth() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        assertEquals(0, recorder.percentile(99));
+        for (int micros = 1; micros <= 1_000; micros++) {
+            recorder.recordNanos(micros * 1_000L);
+        }
+
+        assertEquals(1_000, recorder.count());
+        long p50 = recorder.percentile(50);
+        long p99 = recorder.percentile(99);
+        assertTrue(p50 >= 500 && p50 <= 500 * 1.07, "p50=" + p50);
+        assertTrue(p99 >= 990 && p99 <= 990 * 1.07, "p99=" + p99);
+        assertEquals(1_023, recorder.percentile(100));
+    }
+}
@@ -0,0 +1,151 @@
+package com.course.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.consumer.RetriableCommitFailedException;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffsetCommitManagerTest {
+
+    private static final String TOPIC = "stock";
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+
+    /** Records what each commitAsync sent; can fail them instead. */
+    private static final class RecordingConsumer extends MockConsumer<String, String> {
+        final List<Map<TopicPartition, OffsetAndMetadata>> asyncCommits = new ArrayList<>();
+        boolean failAsyncCommits;
+
+        RecordingConsumer() {
+            super(OffsetResetStrategy.EARLIEST);
+            assign(List.of(P0, P1));
+        }
+
+        @Override
+        public synchronized void commitAsync(Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback) {
+            if (callback == null) {
+                super.commitAsync(offsets, null); // MockConsumer.commitSync() ends up here
+                return;
+            }
+            asyncCommits.add(Map.copyOf(offsets));
+            if (failAsyncCommits) {
+                callback.onComplete(offsets, new RetriableCommitFailedException("coordinator moved"));
+            } else {
+                super.commitAsync(offsets, callback);
+            }
+        }
+    }
+
+    private final AtomicLong now = new AtomicLong();
+    private final RecordingConsumer consumer = new RecordingConsumer();
+
+    private OffsetCommitManager manager(int maxRecords) {
+        return new OffsetCommitManager(consumer, maxRecords, Duration.ofSeconds(1), now::get);
+    }
+
+    private static ConsumerRecord<String, String> record(TopicPartition partition, long offset) {
+        return new ConsumerRecord<>(partition.topic(), partition.partition(), offset, "SKU-1", "stock=" + offset);
+    }
+
+    private long committed(TopicPartition partition) {
+        OffsetAndMetadata offset = consumer.committed(Set.of(partition)).get(partition);
+        return offset == null ? -1 : offset.offset();
+    }
+
+    @Test
+    void testCommitsAfterMaxRecords() {
+        OffsetCommitManager commits = manager(10);
+        for (long offset = 0; offset < 9; offset++) {
+            commits.processed(record(P0, offset));
+            commits.maybeCommit();
+        }
+        assertEquals(0, commits.asyncCommits());
+        assertEquals(-1, committed(P0));
+
+        commits.processed(record(P0, 9));
+        commits.maybeCommit();
+        assertEquals(1, commits.asyncCommits());
+        assertEquals(10, committed(P0), "The committed offset is the NEXT record to read.");
+    }
+
+    @Test
+    void testCommitsAfterMaxInterval() {
+        OffsetCommitManager commits = manager(1_000);
+        commits.processed(record(P0, 0));
+        commits.processed(record(P0, 1));
+        commits.maybeCommit();
+        assertEquals(0, commits.asyncCommits());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        commits.maybeCommit();
+        assertEquals(1, commits.asyncCommits());
+        assertEquals(2, committed(P0));
+
+        // Nothing new: the timer fires again, but there is nothing to send.
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        commits.maybeCommit();
+        assertEquals(1, commits.asyncCommits());
+    }
+
+    @Test
+    void testCommitsOnlyPartitionsThatMoved() {
+        OffsetCommitManager commits = manager(2);
+        commits.processed(record(P0, 0));
+        commits.processed(record(P1, 0));
+        commits.maybeCommit();
+        commits.processed(record(P0, 1));
+        commits.processed(record(P0, 2));
+        commits.maybeCommit();
+
+        assertEquals(List.of(
+            Map.of(P0, new OffsetAndMetadata(1), P1, new OffsetAndMetadata(1)),
+            Map.of(P0, new OffsetAndMetadata(3))), consumer.asyncCommits);
+    }
+
+    @Test
+    void testFailedAsyncCommit_IsSentAgain() {
+        OffsetCommitManager commits = manager(1);
+        consumer.failAsyncCommits = true;
+        commits.processed(record(P0, 0));
+        commits.maybeCommit();
+        assertEquals(1, commits.failedCommits());
+
+        consumer.failAsyncCommits = false;
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        commits.maybeCommit();
+        assertEquals(2, consumer.asyncCommits.size(), "The failed offsets must not count as committed.");
+        assertEquals(1, committed(P0));
+    }
+
+    @Test
+    void testRevokeAndClose_CommitSynchronously() {
+        OffsetCommitManager commits = manager(1_000);
+        commits.processed(record(P0, 4));
+        commits.processed(record(P1, 7));
+
+        commits.onPartitionsRevoked(List.of(P0));
+        assertEquals(1, commits.syncCommits());
+        assertEquals(5, committed(P0));
+        assertEquals(-1, committed(P1), "Only the revoked partition is committed on a rebalance.");
+
+        commits.close();
+        assertEquals(2, commits.syncCommits());
+        assertEquals(8, committed(P1));
+        assertEquals(0, commits.asyncCommits());
+
+        commits.close();
+        assertEquals(2, commits.syncCommits(), "Nothing moved: no second commit.");
+    }
+}
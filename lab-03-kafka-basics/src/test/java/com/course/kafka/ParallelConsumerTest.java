@@ -0,0 +1,198 @@
+package com.course.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.consumer.RetriableCommitFailedException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelConsumerTest {
+
+    private static final String TOPIC = "orders";
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+
+    /**
+     * A MockConsumer whose async commits can fail, with a hook after each one.
+     * Like KafkaConsumer (and unlike MockConsumer), a wakeup() outside poll()
+     * makes the next commitSync() throw.
+     */
+    private static final class TestConsumer extends MockConsumer<String, String> {
+        volatile boolean failAsyncCommits;
+        volatile Runnable afterAsyncCommit = () -> { };
+        private volatile boolean wakeupPending;
+
+        TestConsumer() {
+            super(OffsetResetStrategy.EARLIEST);
+        }
+
+        @Override
+        public synchronized ConsumerRecords<String, String> poll(Duration timeout) {
+            wakeupPending = false; // MockConsumer.poll() throws for it itself
+            return super.poll(timeout);
+        }
+
+        @Override
+        public void wakeup() {
+            wakeupPending = true;
+            super.wakeup();
+        }
+
+        @Override
+        public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+            if (wakeupPending) {
+                wakeupPending = false;
+                throw new WakeupException();
+            }
+            super.commitSync(offsets);
+        }
+
+        @Override
+        public synchronized void commitAsync(Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback) {
+            if (callback == null) {
+                super.commitAsync(offsets, null); // MockConsumer.commitSync() ends up here
+                return;
+            }
+            if (failAsyncCommits) {
+                callback.onComplete(offsets, new RetriableCommitFailedException("coordinator moved"));
+            } else {
+                super.commitAsync(offsets, callback);
+            }
+            afterAsyncCommit.run();
+        }
+    }
+
+    /** 'count' records, keys k0..k9; even keys go to partition 0, odd keys to partition 1. */
+    private static void assignWithRecords(TestConsumer consumer, int count) {
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(List.of(P0, P1));
+            consumer.updateBeginningOffsets(Map.of(P0, 0L, P1, 0L));
+            long[] next = new long[2];
+            for (int i = 0; i < count; i++) {
+                int key = i % 10;
+                int partition = key % 2;
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, partition, next[partition]++, "k" + key, "v" + i));
+            }
+        });
+    }
+
+    private static Thread start(ParallelConsumer<String, String> parallel, Duration drainTimeout) {
+        return Thread.ofPlatform().name("poller").start(() -> parallel.run(List.of(TOPIC), drainTimeout));
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private static long committed(TestConsumer consumer, TopicPartition partition) {
+        OffsetAndMetadata offset = consumer.committed(Set.of(partition)).get(partition);
+        return offset == null ? -1 : offset.offset();
+    }
+
+    @Test
+    void testKeysStayInOrderAndEverythingIsCommitted() throws InterruptedException {
+        TestConsumer consumer = new TestConsumer();
+        assignWithRecords(consumer, 400);
+        Map<String, List<Long>> seen = new ConcurrentHashMap<>();
+        ParallelConsumer<String, String> parallel = new ParallelConsumer<>(consumer, record -> {
+            seen.computeIfAbsent(record.key(), k -> Collections.synchronizedList(new ArrayList<>())).add(record.offset());
+            Thread.sleep(1);
+        }, 50, Duration.ofMillis(20));
+
+        Thread poller = start(parallel, Duration.ofSeconds(5));
+        await(() -> parallel.processed() == 400, "Not every record was handled.");
+        parallel.stop();
+        poller.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertFalse(poller.isAlive());
+        assertEquals(10, seen.size());
+        for (List<Long> offsets : seen.values()) {
+            List<Long> sorted = new ArrayList<>(offsets);
+            Collections.sort(sorted);
+            assertEquals(sorted, offsets, "Records with the same key must run in offset order.");
+        }
+        assertEquals(200, committed(consumer, P0));
+        assertEquals(200, committed(consumer, P1));
+    }
+
+    @Test
+    void testFailedAsyncCommit_IsCommittedAgainOnStop() throws InterruptedException {
+        TestConsumer consumer = new TestConsumer();
+        consumer.failAsyncCommits = true;
+        assignWithRecords(consumer, 40);
+        ParallelConsumer<String, String> parallel = new ParallelConsumer<>(consumer, record -> { }, 50, Duration.ZERO);
+
+        Thread poller = start(parallel, Duration.ofSeconds(5));
+        await(() -> parallel.processed() == 40, "Not every record was handled.");
+        parallel.stop();
+        poller.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertEquals(20, committed(consumer, P0), "A failed async commit must not count as committed.");
+        assertEquals(20, committed(consumer, P1));
+    }
+
+    @Test
+    void testStopOutsidePoll_StillCommits() throws InterruptedException {
+        TestConsumer consumer = new TestConsumer();
+        assignWithRecords(consumer, 40);
+        AtomicReference<ParallelConsumer<String, String>> ref = new AtomicReference<>();
+        ParallelConsumer<String, String> parallel = new ParallelConsumer<>(consumer,
+            record -> Thread.sleep(10), 50, Duration.ZERO);
+        ref.set(parallel);
+        // stop() between two polls, e.g. from a shutdown hook, while records are still
+        // running: the wakeup is still pending when the final commitSync runs.
+        consumer.afterAsyncCommit = () -> ref.get().stop();
+
+        Thread poller = start(parallel, Duration.ofSeconds(5));
+        poller.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertFalse(poller.isAlive());
+        assertEquals(20, committed(consumer, P0));
+        assertEquals(20, committed(consumer, P1));
+    }
+
+    @Test
+    void testStuckHandler_DoesNotHoldUpShutdown() throws InterruptedException {
+        TestConsumer consumer = new TestConsumer();
+        assignWithRecords(consumer, 10);
+        CountDownLatch never = new CountDownLatch(1);
+        ParallelConsumer<String, String> parallel = new ParallelConsumer<>(consumer, record -> {
+            if (record.offset() == 2 && record.partition() == 0) {
+                never.await();
+            }
+        }, 50, Duration.ofMillis(20));
+
+        Thread poller = start(parallel, Duration.ofMillis(200));
+        await(() -> parallel.processed() == 9, "The other records should finish.");
+        long stopped = System.nanoTime();
+        parallel.stop();
+        poller.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertFalse(poller.isAlive(), "run() must return after the drain timeout.");
+        assertTrue(System.nanoTime() - stopped < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(2, committed(consumer, P0), "The stuck record and everything after it are delivered again.");
+        assertEquals(5, committed(consumer, P1));
+        await(() -> parallel.failed() == 1, "The stuck handler should have been interrupted.");
+    }
+}
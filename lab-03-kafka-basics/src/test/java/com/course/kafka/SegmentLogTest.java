@@ -0,0 +1,132 @@
+package com.course.kafka;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentLogTest {
+
+    private static final int SEGMENT_BYTES = 1024;
+
+    @TempDir
+    Path dir;
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Reads everything from the checkpoint on, as "key=value". */
+    private static List<String> readAll(SegmentLog log) {
+        List<String> out = new ArrayList<>();
+        SegmentLog.Position position = log.checkpoint();
+        SegmentLog.Entry entry;
+        while ((entry = log.read(position)) != null) {
+            out.add(entry.key() + "=" + new String(entry.value(), StandardCharsets.UTF_8));
+            position = entry.next();
+        }
+        return out;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).count();
+        }
+    }
+
+    @Test
+    void testAppend_RollsAcrossSegmentsInOrder() {
+        List<String> expected = new ArrayList<>();
+        try (SegmentLog log = new SegmentLog(dir, SEGMENT_BYTES)) {
+            for (int i = 0; i < 200; i++) {
+                log.append("k" + i, bytes("value-" + i));
+                expected.add("k" + i + "=value-" + i);
+            }
+            log.append(null, bytes("no key"));
+            expected.add("null=no key");
+
+            // 200 records of ~20 bytes do not fit one 1 KB segment.
+            assertTrue(log.segmentCount() > 3, "Expected a roll, got " + log.segmentCount() + " segment(s)");
+            assertEquals(expected, readAll(log));
+            assertFalse(log.isDrained());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new SegmentLog(dir, 512));
+    }
+
+    @Test
+    void testAppend_RejectsRecordLargerThanASegment() {
+        try (SegmentLog log = new SegmentLog(dir, SEGMENT_BYTES)) {
+            assertThrows(IllegalArgumentException.class, () -> log.append("big", new byte[SEGMENT_BYTES]));
+            log.append("small", bytes("fits"));
+            assertEquals(List.of("small=fits"), readAll(log));
+        }
+    }
+
+    @Test
+    void testCheckpoint_SurvivesReopenAndDeletesReadSegments() throws IOException {
+        SegmentLog.Position half;
+        try (SegmentLog log = new SegmentLog(dir, SEGMENT_BYTES)) {
+            for (int i = 0; i < 200; i++) {
+                log.append("k" + i, bytes("value-" + i));
+            }
+            SegmentLog.Position position = log.checkpoint();
+            for (int i = 0; i < 150; i++) {
+                position = log.read(position).next();
+            }
+            half = position;
+            log.acknowledge(half);
+            assertEquals(half, log.checkpoint());
+        }
+        assertTrue(half.segment() > 0);
+        assertTrue(Files.exists(dir.resolve("checkpoint")));
+
+        try (SegmentLog log = new SegmentLog(dir, SEGMENT_BYTES)) {
+            assertEquals(half, log.checkpoint());
+            List<String> rest = readAll(log);
+            assertEquals(50, rest.size());
+            assertEquals("k150=value-150", rest.get(0));
+            assertEquals(log.segmentCount(), segmentFiles(), "Fully read segments are deleted.");
+
+            SegmentLog.Position position = log.checkpoint();
+            SegmentLog.Entry entry;
+            while ((entry = log.read(position)) != null) {
+                position = entry.next();
+            }
+            log.acknowledge(position);
+            assertTrue(log.isDrained());
+        }
+    }
+
+    @Test
+    void testRecover_DropsTornRecordAndAppendsAfterLastGoodOne() throws IOException {
+        try (SegmentLog log = new SegmentLog(dir, SEGMENT_BYTES)) {
+            log.append("a", bytes("1"));
+            log.append("b", bytes("2"));
+        }
+        // A crash in the middle of an append: a length was written, but the checksum
+        // does not match and the payload is incomplete.
+        Path segment = dir.resolve(String.format("%020d.seg", 0));
+        int end = 2 * (4 + 4 + 2 + 1 + 1);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(12).putInt(40).putInt(12345).putShort((short) 1).put((byte) 'c').flip(), end);
+        }
+
+        try (SegmentLog log = new SegmentLog(dir, SEGMENT_BYTES)) {
+            assertEquals(List.of("a=1", "b=2"), readAll(log));
+            log.append("d", bytes("4"));
+            assertEquals(List.of("a=1", "b=2", "d=4"), readAll(log));
+        }
+        try (SegmentLog log = new SegmentLog(dir, SEGMENT_BYTES)) {
+            assertEquals(List.of("a=1", "b=2", "d=4"), readAll(log));
+        }
+    }
+}
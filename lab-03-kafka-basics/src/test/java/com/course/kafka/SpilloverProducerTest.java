@@ -0,0 +1,112 @@
+package com.course.kafka;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.NetworkException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpilloverProducerTest {
+
+    private static final String TOPIC = "payments";
+
+    @TempDir
+    Path dir;
+
+    /** A broker that answers only when the test completes or fails a send. */
+    private static final class ManualProducer extends MockProducer<String, byte[]> {
+        ManualProducer() {
+            super(false, new StringSerializer(), new ByteArraySerializer());
+        }
+
+        @Override
+        public synchronized void flush() {
+            // The real flush() would complete every pending send successfully.
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> values(ManualProducer producer) {
+        return producer.history().stream()
+            .map(ProducerRecord::value)
+            .map(value -> new String(value, StandardCharsets.UTF_8))
+            .toList();
+    }
+
+    /** Completes sends as the replayer makes them, until it switches back to direct sending. */
+    private static void answerUntilDirect(ManualProducer producer, SpilloverProducer spillover) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (spillover.spilling()) {
+            assertTrue(System.nanoTime() < deadline, "The replayer never drained the log.");
+            if (!producer.completeNext()) {
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+        }
+    }
+
+    @Test
+    void testReplay_KeepsLogOrderAndNewRecordsWaitForIt() throws InterruptedException {
+        ManualProducer producer = new ManualProducer();
+        try (SpilloverProducer spillover = new SpilloverProducer(producer, TOPIC, new SegmentLog(dir, 4096))) {
+            spillover.send("k1", bytes("F1"));
+            spillover.send("k2", bytes("F2"));
+
+            producer.errorNext(new NetworkException("broker down")); // F1
+            assertTrue(spillover.spilling());
+            spillover.send("k3", bytes("N1"));
+            producer.errorNext(new NetworkException("broker down")); // F2, still in flight until now
+
+            answerUntilDirect(producer, spillover);
+            spillover.send("k4", bytes("N2"));
+            producer.completeNext();
+
+            // F2 was in flight when F1 failed, so it lands behind N1 (see the class doc),
+            // but nothing sent after the failure overtakes anything in the log.
+            assertEquals(List.of("F1", "F2", "F1", "N1", "F2", "N2"), values(producer));
+            assertEquals(3, spillover.spilled());
+            assertEquals(3, spillover.replayed());
+            assertEquals(1, spillover.sent());
+        }
+    }
+
+    @Test
+    void testFatalError_IsDroppedNotSpilled() {
+        ManualProducer producer = new ManualProducer();
+        try (SpilloverProducer spillover = new SpilloverProducer(producer, TOPIC, new SegmentLog(dir, 4096))) {
+            spillover.send("k1", bytes("too big"));
+            producer.errorNext(new RecordTooLargeException("too large"));
+
+            assertFalse(spillover.spilling());
+            assertEquals(1, spillover.dropped());
+            assertEquals(0, spillover.spilled());
+        }
+    }
+
+    @Test
+    void testRestart_ReplaysWhatTheLastRunSpilled() throws InterruptedException {
+        try (SegmentLog log = new SegmentLog(dir, 4096)) {
+            log.append("k1", bytes("left-1"));
+            log.append("k2", bytes("left-2"));
+        }
+
+        ManualProducer producer = new ManualProducer();
+        try (SpilloverProducer spillover = new SpilloverProducer(producer, TOPIC, new SegmentLog(dir, 4096))) {
+            assertTrue(spillover.spilling(), "Leftover records must go before new ones.");
+            spillover.send("k3", bytes("new"));
+
+            answerUntilDirect(producer, spillover);
+            assertEquals(List.of("left-1", "left-2", "new"), values(producer));
+        }
+    }
+}